@@ -17,6 +17,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
@@ -44,6 +45,7 @@ import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.autelis.config.AutelisConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
 /**
@@ -343,13 +345,21 @@ public class AutelisHandler extends BaseThingHandler {
 		 * wrapped in response tags for easier querying in XPath.
 		 */
 		String xmlDoc = sb.toString();
+		XPath xpath = XPathFactory.newInstance().newXPath();
+		Document document;
+		try {
+			// parse the document once, rather than once for every channel
+			document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+					.parse(new InputSource(new StringReader(xmlDoc)));
+		} catch (Exception e) {
+			logger.error("could not parse xml", e);
+			return;
+		}
+
 		for (Channel channel : getThing().getChannels()) {
 			String key = channel.getUID().getId().replace('-', '/');
-			XPathFactory xpathFactory = XPathFactory.newInstance();
-			XPath xpath = xpathFactory.newXPath();
 			try {
-				InputSource is = new InputSource(new StringReader(xmlDoc));
-				String value = xpath.evaluate("response/" + key, is);
+				String value = xpath.evaluate("response/" + key, document);
 
 				if (StringUtils.isEmpty((value)))
 					continue;
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Test;
+import org.openhab.binding.max.MaxBinding;
+
+/**
+ * Tests cases for {@link ChannelStateCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ChannelStateCacheTest {
+
+	private final ThingUID thingUID = new ThingUID("max:thermostat:KEQ0565026:KEQ0544242");
+
+	@Test
+	public void channelUIDTest() {
+		ChannelStateCache cache = new ChannelStateCache(thingUID);
+
+		ChannelUID channelUID = cache.getChannelUID(MaxBinding.CHANNEL_VALVE);
+		assertEquals(new ChannelUID(thingUID, MaxBinding.CHANNEL_VALVE), channelUID);
+		assertSame(channelUID, cache.getChannelUID(MaxBinding.CHANNEL_VALVE));
+		assertNotSame(channelUID, cache.getChannelUID(MaxBinding.CHANNEL_SETTEMP));
+
+		// the UIDs are kept per thing
+		ThingUID otherUID = new ThingUID("max:thermostat:KEQ0565026:KEQ0565027");
+		assertEquals(new ChannelUID(otherUID, MaxBinding.CHANNEL_VALVE),
+				new ChannelStateCache(otherUID).getChannelUID(MaxBinding.CHANNEL_VALVE));
+	}
+
+	@Test
+	public void percentageTest() {
+		assertSame(ChannelStateCache.getPercentage(0), ChannelStateCache.getPercentage(0));
+		assertSame(ChannelStateCache.getPercentage(100), ChannelStateCache.getPercentage(100));
+		assertEquals(new DecimalType(42), ChannelStateCache.getPercentage(42));
+
+		// values out of range are not cached, but still converted
+		assertEquals(new DecimalType(101), ChannelStateCache.getPercentage(101));
+		assertEquals(new DecimalType(-1), ChannelStateCache.getPercentage(-1));
+	}
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.handler;
+
+import static org.junit.Assert.*;
+
+import java.net.ServerSocket;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link MaxCubeConnection}.
+ *
+ * @author agent - Initial contribution
+ */
+public class MaxCubeConnectionTest {
+
+	private final MaxCubeConnection.LineHandler handler = new MaxCubeConnection.LineHandler() {
+		@Override
+		public void lineReceived(String line) {
+		}
+	};
+
+	@Test
+	public void backoffTest() throws Exception {
+		// a port nobody listens on
+		ServerSocket serverSocket = new ServerSocket(0);
+		int port = serverSocket.getLocalPort();
+		serverSocket.close();
+
+		MaxCubeConnection connection = new MaxCubeConnection("127.0.0.1", port, false, 0);
+		assertFalse(connection.isBackingOff());
+		assertFalse(connection.send("s:\r\n", handler));
+
+		// the bridge keeps its commands queued until the backoff expired
+		assertTrue(connection.isBackingOff());
+		assertFalse(connection.isConnected());
+		assertFalse(connection.send("s:\r\n", handler));
+	}
+}
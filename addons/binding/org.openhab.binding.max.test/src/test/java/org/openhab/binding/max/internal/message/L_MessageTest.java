@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link L_Message} and the {@link DeviceRegistry} it
+ * updates.
+ * 
+ * @author agent - Initial contribution
+ * @since 2.0
+ */
+public class L_MessageTest {
+
+	public final String rawData = "L:CwsNowkSGE0kALAACwjB1gkSGGAiAAAABg519gkSEAYEM28JAAALC+miCRIYACIAAAAMDhXMCRIYBCIAAACtCwjDSQkSGGQqAGMACwe25wkSGGQkAAAA";
+
+	public final String[] configurationData = {
+			"C:0b0da3,0gsNowIBEABLRVEwNTQ0MjQyLCQ9CQcYAzAM/wBIYViRSP1ZFE0gTSBNIEUgRSBFIEUgRSBFIEhhWJFQ/VkVUSBRIFEgRSBFIEUgRSBFIEUgSFBYWkj+WRRNIE0gTSBFIEUgRSBFIEUgRSBIUFhaSP5ZFE0gTSBNIEUgRSBFIEUgRSBFIEhQWFpI/lkUTSBNIE0gRSBFIEUgRSBFIEUgSFBYWkj+WRRNIE0gTSBFIEUgRSBFIEUgRSBIUFhaSP5ZFE0gTSBNIEUgRSBFIEUgRSBFIA==",
+			"C:0e75f6,EQ519gQCEABLRVExMTA0Mzgw",
+			"C:04336f,EQQzbwUAEg9KRVEwMzgwODc4" };
+
+	private List<DeviceConfiguration> configurations = new ArrayList<DeviceConfiguration>();
+	private DeviceRegistry devices = new DeviceRegistry();
+
+	@Before
+	public void Before() {
+		for (String data : configurationData) {
+			configurations.add(DeviceConfiguration.create(new C_Message(data)));
+		}
+		new L_Message(rawData).updateDevices(devices, configurations);
+	}
+
+	@Test
+	public void updateDevicesTest() {
+
+		// only the devices with a configuration are created
+		assertEquals(3, devices.size());
+	}
+
+	@Test
+	public void getByRFAddressTest() {
+
+		Device device = devices.getByRFAddress(0x0b0da3);
+
+		assertEquals("0b0da3", device.getRFAddress());
+		assertEquals(DeviceType.HeatingThermostatPlus, device.getType());
+		assertNull(devices.getByRFAddress(0x08c1d6));
+	}
+
+	@Test
+	public void getBySerialNumberTest() {
+
+		Device device = devices.getBySerialNumber("keq0544242");
+
+		assertSame(devices.getByRFAddress(0x0b0da3), device);
+		assertNull(devices.getBySerialNumber("KEQ0000000"));
+	}
+
+	@Test
+	public void repeatedUpdateTest() {
+
+		Device device = devices.getByRFAddress(0x0e75f6);
+
+		new L_Message(rawData).updateDevices(devices, configurations);
+
+		assertEquals(3, devices.size());
+		assertSame(device, devices.getByRFAddress(0x0e75f6));
+	}
+
+	@Test
+	public void dirtyTest() {
+
+		Device device = devices.getByRFAddress(0x0b0da3);
+		assertTrue(device.isDirty());
+
+		device.setDirty(false);
+		new L_Message(rawData).updateDevices(devices, configurations);
+
+		// the same data does not make the device dirty again
+		assertFalse(device.isDirty());
+	}
+
+	@Test
+	public void toRFAddressTest() {
+
+		byte[] raw = { (byte) 0x0b, (byte) 0x0d, (byte) 0xa3, 0x09 };
+
+		assertEquals(0x0b0da3, DeviceRegistry.toRFAddress(raw));
+		assertEquals(0x0b0da3, DeviceRegistry.toRFAddress("0B0DA3"));
+	}
+}
@@ -77,4 +77,16 @@ public class S_CommandTest {
 		assertEquals("s:AARAAAAACw2jAQA=\r\n", commandStr);
 		
 	}
+
+	@Test
+	public void sameRoomCommandTest() {
+		S_Command scmd = new S_Command("0b0da3", 1, ThermostatModeType.MANUAL, 20.0);
+
+		assertTrue(scmd.isSameRoomCommand(new S_Command("0b0dad", 1, ThermostatModeType.MANUAL, 20.0)));
+		assertFalse(scmd.isSameRoomCommand(new S_Command("0b0dad", 2, ThermostatModeType.MANUAL, 20.0)));
+		assertFalse(scmd.isSameRoomCommand(new S_Command("0b0dad", 1, ThermostatModeType.MANUAL, 20.5)));
+		assertFalse(scmd.isSameRoomCommand(new S_Command("0b0dad", 1, ThermostatModeType.BOOST, 20.0)));
+		assertFalse(new S_Command("0b0da3", 0, ThermostatModeType.MANUAL, 20.0)
+				.isSameRoomCommand(new S_Command("0b0dad", 0, ThermostatModeType.MANUAL, 20.0)));
+	}
 }
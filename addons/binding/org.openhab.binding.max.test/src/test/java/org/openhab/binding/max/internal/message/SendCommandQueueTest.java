@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.message;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link SendCommandQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SendCommandQueueTest {
+
+	private final ChannelUID channelUID = new ChannelUID("max:thermostat:KEQ0565026:KEQ0544242:set_temp");
+
+	private SendCommandQueue queue;
+
+	@Before
+	public void before() {
+		queue = new SendCommandQueue(3);
+	}
+
+	@Test
+	public void coalesceTest() {
+		SendCommand first = new SendCommand("KEQ0544242", channelUID, new DecimalType(20));
+		SendCommand other = new SendCommand("KEQ0565026", channelUID, new DecimalType(21));
+		SendCommand last = new SendCommand("KEQ0544242", channelUID, new DecimalType(22));
+
+		assertTrue(queue.offer(first));
+		assertTrue(queue.offer(other));
+		assertTrue(queue.offer(last));
+
+		assertEquals(2, queue.size());
+		assertEquals(2, queue.getQueuedCommands());
+		assertEquals(1, queue.getCoalescedCommands());
+
+		// the last command takes the place of the first one
+		assertSame(last, queue.peek());
+		queue.sent(last);
+		assertSame(other, queue.peek());
+		queue.sent(other);
+		assertNull(queue.peek());
+		assertEquals(2, queue.getSentCommands());
+	}
+
+	@Test
+	public void failedSendTest() {
+		SendCommand first = new SendCommand("KEQ0544242", channelUID, new DecimalType(20));
+		SendCommand other = new SendCommand("KEQ0565026", channelUID, new DecimalType(21));
+		queue.offer(first);
+		queue.offer(other);
+
+		// the Cube could not be reached, the command is not confirmed
+		assertSame(first, queue.peek());
+		assertSame(first, queue.peek());
+		assertEquals(2, queue.size());
+		assertEquals(0, queue.getSentCommands());
+		assertEquals(0, queue.getMaxLatency());
+
+		// it is sent again ahead of the later commands
+		queue.sent(first);
+		assertSame(other, queue.peek());
+		assertEquals(1, queue.getSentCommands());
+	}
+
+	@Test
+	public void replacedWhileSendingTest() {
+		SendCommand first = new SendCommand("KEQ0544242", channelUID, new DecimalType(20));
+		SendCommand last = new SendCommand("KEQ0544242", channelUID, new DecimalType(22));
+		queue.offer(first);
+
+		assertSame(first, queue.peek());
+		queue.offer(last);
+		queue.sent(first);
+
+		// the newer value is still to be sent
+		assertSame(last, queue.peek());
+		assertEquals(0, queue.getSentCommands());
+	}
+
+	@Test
+	public void skippedAndDiscardedTest() {
+		SendCommand first = new SendCommand("KEQ0544242", channelUID, new DecimalType(20));
+		SendCommand other = new SendCommand("KEQ0565026", channelUID, new DecimalType(21));
+		queue.offer(first);
+		queue.offer(other);
+
+		queue.skipped(queue.peek());
+		queue.discard(queue.peek());
+
+		assertEquals(0, queue.size());
+		assertEquals(0, queue.getSentCommands());
+		assertEquals(1, queue.getRoomCoalescedCommands());
+		assertEquals(1, queue.getDroppedCommands());
+		assertEquals(0, queue.getAverageLatency());
+	}
+
+	@Test
+	public void capacityTest() {
+		assertTrue(queue.offer(new SendCommand("KEQ0000001", channelUID, new DecimalType(20))));
+		assertTrue(queue.offer(new SendCommand("KEQ0000002", channelUID, new DecimalType(20))));
+		assertTrue(queue.offer(new SendCommand("KEQ0000003", channelUID, new DecimalType(20))));
+		assertFalse(queue.offer(new SendCommand("KEQ0000004", channelUID, new DecimalType(20))));
+
+		// a replacement still fits
+		assertTrue(queue.offer(new SendCommand("KEQ0000002", channelUID, new DecimalType(21))));
+		assertEquals(1, queue.getDroppedCommands());
+		assertEquals(3, queue.size());
+	}
+
+	@Test
+	public void sendBudgetTest() {
+		assertEquals(SendCommandQueue.MAX_BURST, queue.getSendBudget(0, 50));
+		assertEquals(3, queue.getSendBudget(0, 5));
+		assertEquals(0, queue.getSendBudget(100, 50));
+		assertEquals(0, queue.getSendBudget(0, 0));
+
+		// spaced out once a command was sent
+		assertEquals(1, queue.getSendBudget(SendCommandQueue.HIGH_DUTY_CYCLE, 50));
+		queue.offer(new SendCommand("KEQ0544242", channelUID, new DecimalType(20)));
+		queue.sent(queue.peek());
+		assertEquals(0, queue.getSendBudget(SendCommandQueue.HIGH_DUTY_CYCLE, 50));
+		assertEquals(0, queue.getSendBudget(0, 1));
+	}
+}
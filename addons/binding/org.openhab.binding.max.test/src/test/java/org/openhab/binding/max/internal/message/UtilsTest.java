@@ -10,6 +10,7 @@ package org.openhab.binding.max.internal.message;
 
 import static org.junit.Assert.*;
 
+import java.nio.ByteBuffer;
 import java.util.Date;
 
 //import junit.framework.Assert;
@@ -141,4 +142,28 @@ public class UtilsTest {
 		assertEquals(10, result[4] & 0xFF);
 		assertEquals(255, result[5] & 0xFF);	
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void decodeBase64Test() {
+		// "L:" followed by a record of a device with RF address 0ff1bc
+		String raw = "L:Bg/xvAkAAA==";
+
+		ByteBuffer buffer = Utils.decodeBase64(raw, 2, raw.length(), null);
+
+		assertEquals(7, buffer.limit());
+		assertEquals(6, buffer.get(0));
+		assertEquals(0x0f, buffer.get(1) & 0xFF);
+		assertEquals(0xf1, buffer.get(2) & 0xFF);
+		assertEquals(0xbc, buffer.get(3) & 0xFF);
+		assertEquals(0x09, buffer.get(4) & 0xFF);
+		assertEquals(0, buffer.get(6));
+
+		// the buffer is reused when it is large enough
+		ByteBuffer reused = Utils.decodeBase64("QUJD", 0, 4, buffer);
+
+		assertSame(buffer, reused);
+		assertArrayEquals("ABC".getBytes(), Utils.decodeBase64("QUJD"));
+		assertArrayEquals("AB".getBytes(), Utils.decodeBase64("QUI="));
+		assertArrayEquals("A".getBytes(), Utils.decodeBase64("QQ=="));
+	}
+}
@@ -48,4 +48,10 @@ public class MaxCubeBridgeConfiguration {
 	 * closed and reopened
 	 */
 	public Integer maxRequestsPerConnection;
+
+	/**
+	 * If set to true in exclusive mode, the binding will process the data the
+	 * cube sends as soon as it arrives, and only poll as a fallback.
+	 */
+	public boolean pushMode = false;
 }
@@ -10,6 +10,8 @@ package org.openhab.binding.max.internal;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Date;
 
 /**
@@ -183,6 +185,98 @@ public final class Utils {
 		return hex.toString();
 	}
 
+	private static final int[] BASE64_VALUES = new int[128];
+
+	static {
+		Arrays.fill(BASE64_VALUES, -1);
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int i = 0; i < alphabet.length(); i++) {
+			BASE64_VALUES[alphabet.charAt(i)] = i;
+		}
+	}
+
+	/**
+	 * Decodes the Base64 encoded characters of a string straight into a
+	 * buffer, without intermediate strings or arrays. Characters outside the
+	 * Base64 alphabet, like padding and line breaks, are skipped.
+	 * 
+	 * @param src
+	 *            the string holding the Base64 encoded data
+	 * @param start
+	 *            the index of the first character to decode
+	 * @param end
+	 *            the index after the last character to decode
+	 * @param buffer
+	 *            the buffer to decode into, which may be <code>null</code>
+	 * @return the given buffer, or a larger one if it could not hold the
+	 *         decoded data, with the decoded data between position 0 and the
+	 *         limit
+	 */
+	public static ByteBuffer decodeBase64(CharSequence src, int start, int end, ByteBuffer buffer) {
+		int capacity = (end - start) * 3 / 4 + 3;
+		if (buffer == null || buffer.capacity() < capacity) {
+			buffer = ByteBuffer.allocate(capacity);
+		}
+		buffer.clear();
+
+		int bits = 0;
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			char c = src.charAt(i);
+			int value = c < 128 ? BASE64_VALUES[c] : -1;
+			if (value < 0) {
+				continue;
+			}
+			bits = (bits << 6) | value;
+			if (++count == 4) {
+				buffer.put((byte) (bits >> 16));
+				buffer.put((byte) (bits >> 8));
+				buffer.put((byte) bits);
+				bits = 0;
+				count = 0;
+			}
+		}
+		if (count == 3) {
+			buffer.put((byte) (bits >> 10));
+			buffer.put((byte) (bits >> 2));
+		} else if (count == 2) {
+			buffer.put((byte) (bits >> 4));
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Decodes a Base64 encoded string.
+	 * 
+	 * @param src
+	 *            the Base64 encoded data
+	 * @return the decoded data
+	 */
+	public static byte[] decodeBase64(String src) {
+		return decodeBase64(src, 0, src.length());
+	}
+
+	/**
+	 * Decodes the Base64 encoded characters of a string between the given
+	 * indexes.
+	 * 
+	 * @param src
+	 *            the string holding the Base64 encoded data
+	 * @param start
+	 *            the index of the first character to decode
+	 * @param end
+	 *            the index after the last character to decode
+	 * @return the decoded data
+	 */
+	public static byte[] decodeBase64(CharSequence src, int start, int end) {
+		ByteBuffer buffer = decodeBase64(src, start, end, null);
+		byte[] bytes = new byte[buffer.limit()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
 	/**
 	 * Retrieves the stacktrace of an exception as string.
 	 * 
@@ -9,14 +9,23 @@
 package org.openhab.binding.max.internal.discovery;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.InterfaceAddress;
 import java.net.NetworkInterface;
-import java.net.SocketTimeoutException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
@@ -45,17 +54,31 @@ public class MaxCubeBridgeDiscovery extends AbstractDiscoveryService {
 
 	private final static Logger logger = LoggerFactory.getLogger(MaxCubeBridgeDiscovery.class);
 
-	static boolean discoveryRunning = false;
-	
+	/** The port the Cubes listen and respond on */
+	private static final int DISCOVERY_PORT = 23272;
+
+	/** The time in ms a discovery waits for responses */
+	private static final long DISCOVERY_TIMEOUT = 5000;
+
+	/** The time in ms after which a scan repeats its requests, for lost packets */
+	private static final long RETRY_DELAY = 1000;
+
 	/** The refresh interval for discovery of MAX! Cubes */
 	private long refreshInterval = 600;
 	private ScheduledFuture<?> cubeDiscoveryJob;
 	private Runnable cubeDiscoveryRunnable = new Runnable() {
 		@Override
 		public void run() {
-			discoverCube();		}
+			discoverCube(false);
+		}
+	};
+	private Runnable cubeScanRunnable = new Runnable() {
+		@Override
+		public void run() {
+			discoverCube(true);
+		}
 	};
-	
+
 	public MaxCubeBridgeDiscovery() {
 		super(MaxBinding.SUPPORTED_BRIDGE_THING_TYPES_UIDS, 15, true);
 	}
@@ -68,7 +91,7 @@ public class MaxCubeBridgeDiscovery extends AbstractDiscoveryService {
 	@Override
 	public void startScan() {
 		logger.debug("Start MAX! Cube discovery");
-		scheduler.scheduleAtFixedRate(cubeDiscoveryRunnable, 0, refreshInterval, TimeUnit.SECONDS);
+		scheduler.execute(cubeScanRunnable);
 	}
 
 	/* (non-Javadoc)
@@ -94,76 +117,110 @@ public class MaxCubeBridgeDiscovery extends AbstractDiscoveryService {
 		}
 	}
 
-	private synchronized void discoverCube() {
+	/**
+	 * Sends the discovery request to the broadcast address of every active
+	 * interface at once and handles the responses as they arrive, until the
+	 * time budget is spent. Each Cube is reported once per discovery, however
+	 * many interfaces it responds on.
+	 * 
+	 * @param retry
+	 *            whether to repeat the requests once, for an interactive scan.
+	 *            The background discovery sends each request only once.
+	 */
+	private synchronized void discoverCube(boolean retry) {
 		logger.debug("Run MAX! Cube discovery");
-		sendDiscoveryMessage(MAXCUBE_DISCOVER_STRING);
-		logger.trace("Done sending broadcast discovery messages.");
-		receiveDiscoveryMessage();
-		logger.debug("Done receiving discovery messages.");
-	}
+		Set<String> discoveredCubes = new HashSet<String>();
+		DatagramChannel channel = null;
+		Selector selector = null;
+		try {
+			channel = DatagramChannel.open(StandardProtocolFamily.INET);
+			channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			channel.setOption(StandardSocketOptions.SO_BROADCAST, true);
+			channel.bind(new InetSocketAddress(DISCOVERY_PORT));
+			channel.configureBlocking(false);
+			selector = Selector.open();
+			channel.register(selector, SelectionKey.OP_READ);
 
-	private void receiveDiscoveryMessage() {
+			Set<InetAddress> targets = getBroadcastAddresses();
+			sendDiscoveryMessage(channel, targets);
+			logger.trace("Done sending broadcast discovery messages.");
 
-		DatagramSocket bcReceipt = null;
+			long start = System.currentTimeMillis();
+			long deadline = start + DISCOVERY_TIMEOUT;
+			long retryTime = retry ? start + RETRY_DELAY : Long.MAX_VALUE;
+			ByteBuffer buffer = ByteBuffer.allocate(1500);
 
-		try {
-			discoveryRunning = true;
-			bcReceipt = new DatagramSocket(23272);
-			bcReceipt.setReuseAddress(true);
-			bcReceipt.setSoTimeout(5000);
-
-			while (discoveryRunning) {
-				// Wait for a response
-				byte[] recvBuf = new byte[1500];
-				DatagramPacket receivePacket = new DatagramPacket(recvBuf, recvBuf.length);
-				bcReceipt.receive(receivePacket);
-
-				// We have a response
-				String message = new String(receivePacket.getData(), receivePacket.getOffset(),
-						receivePacket.getLength());
-				logger.trace("Broadcast response from {} : {} '{}'", receivePacket.getAddress(), message.length(),
-						message);
-
-				// Check if the message is correct
-				if (message.startsWith("eQ3Max") && !message.equals(MAXCUBE_DISCOVER_STRING)) {
-					String maxCubeIP = receivePacket.getAddress().getHostAddress();
-					String maxCubeState = message.substring(0, 8);
-					String serialNumber = message.substring(8, 18);
-					String msgValidid = message.substring(18, 19);
-					String requestType = message.substring(19, 20);
-					String rfAddress ="";
-					logger.debug("MAX! Cube found on network");
-					logger.debug("Found at  : {}", maxCubeIP);
-					logger.debug("Cube State: {}", maxCubeState);
-					logger.debug("Serial    : {}", serialNumber);
-					logger.trace("Msg Valid : {}", msgValidid);
-					logger.trace("Msg Type  : {}", requestType);
-
-					if (requestType.equals( "I")) {
-						rfAddress = Utils.getHex(message.substring(21, 24).getBytes()).replace(" ", "")
-								.toLowerCase();
-						String firmwareVersion = Utils.getHex(message.substring(24, 26).getBytes()).replace(" ", ".");
-						logger.debug("RF Address: {}", rfAddress);
-						logger.debug("Firmware  : {}", firmwareVersion);
-					}
-					discoveryResultSubmission(maxCubeIP, serialNumber, rfAddress);
+			long now;
+			while ((now = System.currentTimeMillis()) < deadline && !Thread.currentThread().isInterrupted()) {
+				if (now >= retryTime) {
+					sendDiscoveryMessage(channel, targets);
+					retryTime = Long.MAX_VALUE;
+				}
+				if (selector.select(Math.min(deadline, retryTime) - now) == 0) {
+					continue;
+				}
+				selector.selectedKeys().clear();
+
+				SocketAddress sender;
+				while ((sender = channel.receive(buffer)) != null) {
+					buffer.flip();
+					receiveDiscoveryMessage(((InetSocketAddress) sender).getAddress(), buffer, discoveredCubes);
+					buffer.clear();
 				}
 			}
-		} catch (SocketTimeoutException e) {
-			logger.trace("No further response");
-			discoveryRunning = false;
 		} catch (IOException e) {
 			logger.debug("IO error during MAX! Cube discovery: {}", e.getMessage());
-			discoveryRunning = false;
 		} finally {
 			// Close the port!
 			try {
-				if (bcReceipt != null)
-					bcReceipt.close();
+				if (selector != null)
+					selector.close();
+				if (channel != null)
+					channel.close();
 			} catch (Exception e) {
 				logger.debug(e.toString());
 			}
 		}
+		logger.debug("Done receiving discovery messages, {} MAX! Cubes found.", discoveredCubes.size());
+	}
+
+	private void receiveDiscoveryMessage(InetAddress address, ByteBuffer data, Set<String> discoveredCubes) {
+		byte[] bytes = new byte[data.remaining()];
+		data.get(bytes);
+		String message = new String(bytes, StandardCharsets.ISO_8859_1);
+		logger.trace("Broadcast response from {} : {} '{}'", address, message.length(), message);
+
+		// Check if the message is correct
+		if (!message.startsWith("eQ3Max") || message.equals(MAXCUBE_DISCOVER_STRING) || message.length() < 20) {
+			return;
+		}
+
+		String maxCubeIP = address.getHostAddress();
+		String maxCubeState = message.substring(0, 8);
+		String serialNumber = message.substring(8, 18);
+		String msgValidid = message.substring(18, 19);
+		String requestType = message.substring(19, 20);
+		String rfAddress = "";
+
+		if (!discoveredCubes.add(serialNumber)) {
+			logger.trace("MAX! Cube {} already found at {}", serialNumber, maxCubeIP);
+			return;
+		}
+
+		logger.debug("MAX! Cube found on network");
+		logger.debug("Found at  : {}", maxCubeIP);
+		logger.debug("Cube State: {}", maxCubeState);
+		logger.debug("Serial    : {}", serialNumber);
+		logger.trace("Msg Valid : {}", msgValidid);
+		logger.trace("Msg Type  : {}", requestType);
+
+		if (requestType.equals("I") && bytes.length >= 26) {
+			rfAddress = Utils.toHex(bytes[21] & 0xFF, bytes[22] & 0xFF, bytes[23] & 0xFF).toLowerCase();
+			String firmwareVersion = Utils.getHex(Arrays.copyOfRange(bytes, 24, 26)).replace(" ", ".");
+			logger.debug("RF Address: {}", rfAddress);
+			logger.debug("Firmware  : {}", firmwareVersion);
+		}
+		discoveryResultSubmission(maxCubeIP, serialNumber, rfAddress);
 	}
 
 	private void discoveryResultSubmission(String IpAddress, String cubeSerialNumber, String rfAddress) {
@@ -184,62 +241,53 @@ public class MaxCubeBridgeDiscovery extends AbstractDiscoveryService {
 	}
 
 	/**
-	 * Send broadcast message over all active interfaces
-	 * 
-	 * @param discoverString
-	 *            String to be used for the discovery
+	 * Returns the broadcast addresses of all active interfaces, and the
+	 * limited broadcast address.
 	 */
-	private void sendDiscoveryMessage(String discoverString) {
-		DatagramSocket bcSend = null;
-		// Find the MaxCube using UDP broadcast
-		try {
-			bcSend = new DatagramSocket();
-			bcSend.setBroadcast(true);
-
-			byte[] sendData = discoverString.getBytes();
+	private Set<InetAddress> getBroadcastAddresses() throws IOException {
+		Set<InetAddress> broadcastAddresses = new LinkedHashSet<InetAddress>();
+		broadcastAddresses.add(InetAddress.getByName("255.255.255.255"));
 
-			// Broadcast the message over all the network interfaces
-			Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
-			while (interfaces.hasMoreElements()) {
-				NetworkInterface networkInterface = (NetworkInterface) interfaces.nextElement();
-				if (networkInterface.isLoopback() || !networkInterface.isUp()) {
-					continue;
-				}
-				for (InterfaceAddress interfaceAddress : networkInterface.getInterfaceAddresses()) {
-					InetAddress[] broadcast = new InetAddress[3];
-					broadcast[0] = InetAddress.getByName("224.0.0.1");
-					broadcast[0] = InetAddress.getByName("255.255.255.255");
-					broadcast[1] = interfaceAddress.getBroadcast();
-					for (InetAddress bc : broadcast) {
-						// Send the broadcast package!
-						if (bc != null) {
-							try {
-								DatagramPacket sendPacket = new DatagramPacket(sendData, sendData.length, bc, 23272);
-								bcSend.send(sendPacket);
-							} catch (IOException e) {
-								logger.debug("IO error during MAX! Cube discovery: {}", e.getMessage());
-							} catch (Exception e) {
-								logger.info(e.getMessage(), e);
-							}
-							logger.trace("Request packet sent to: {} Interface: {}", bc.getHostAddress(),
-									networkInterface.getDisplayName());
-						}
-					}
+		Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+		while (interfaces.hasMoreElements()) {
+			NetworkInterface networkInterface = interfaces.nextElement();
+			if (networkInterface.isLoopback() || !networkInterface.isUp()) {
+				continue;
+			}
+			for (InterfaceAddress interfaceAddress : networkInterface.getInterfaceAddresses()) {
+				// IPv6 addresses have no broadcast address
+				if (interfaceAddress.getBroadcast() != null) {
+					broadcastAddresses.add(interfaceAddress.getBroadcast());
+					logger.trace("Interface {} has broadcast address {}", networkInterface.getDisplayName(),
+							interfaceAddress.getBroadcast().getHostAddress());
 				}
 			}
-			logger.trace("Done looping over all network interfaces. Now waiting for a reply!");
+		}
+		return broadcastAddresses;
+	}
 
-		} catch (IOException e) {
-			logger.debug("IO error during MAX! Cube discovery: {}", e.getMessage());
-		} finally {
+	/**
+	 * Send broadcast message to all broadcast addresses, without waiting for
+	 * any of them
+	 * 
+	 * @param channel
+	 *            the non-blocking channel to send the message with
+	 * @param broadcastAddresses
+	 *            the addresses to send the message to
+	 */
+	private void sendDiscoveryMessage(DatagramChannel channel, Set<InetAddress> broadcastAddresses) {
+		byte[] sendData = MAXCUBE_DISCOVER_STRING.getBytes(StandardCharsets.ISO_8859_1);
+		for (InetAddress bc : broadcastAddresses) {
 			try {
-				if (bcSend != null)
-					bcSend.close();
-			} catch (Exception e) {
-				// Ignore
+				if (channel.send(ByteBuffer.wrap(sendData), new InetSocketAddress(bc, DISCOVERY_PORT)) == 0) {
+					logger.debug("Request packet to {} dropped, send buffer full", bc.getHostAddress());
+				} else {
+					logger.trace("Request packet sent to: {}", bc.getHostAddress());
+				}
+			} catch (IOException e) {
+				logger.debug("IO error during MAX! Cube discovery: {}", e.getMessage());
 			}
 		}
-
 	}
 
-}
\ No newline at end of file
+}
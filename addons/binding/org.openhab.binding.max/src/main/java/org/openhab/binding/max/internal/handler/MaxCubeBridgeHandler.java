@@ -13,21 +13,18 @@ import static org.openhab.binding.max.MaxBinding.CHANNEL_SETTEMP;
 import static org.openhab.binding.max.MaxBinding.CHANNEL_DUTY_CYCLE;
 import static org.openhab.binding.max.MaxBinding.CHANNEL_FREE_MEMORY;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.ConnectException;
-import java.net.Socket;
-import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.io.OutputStreamWriter;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -47,6 +44,7 @@ import org.openhab.binding.max.internal.message.C_Message;
 import org.openhab.binding.max.internal.message.Device;
 import org.openhab.binding.max.internal.message.DeviceConfiguration;
 import org.openhab.binding.max.internal.message.DeviceInformation;
+import org.openhab.binding.max.internal.message.DeviceRegistry;
 import org.openhab.binding.max.internal.message.DeviceType;
 import org.openhab.binding.max.internal.message.H_Message;
 import org.openhab.binding.max.internal.message.HeatingThermostat;
@@ -59,6 +57,7 @@ import org.openhab.binding.max.internal.message.RoomInformation;
 import org.openhab.binding.max.internal.message.S_Command;
 import org.openhab.binding.max.internal.message.S_Message;
 import org.openhab.binding.max.internal.message.SendCommand;
+import org.openhab.binding.max.internal.message.SendCommandQueue;
 import org.openhab.binding.max.internal.message.ThermostatModeType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -77,15 +76,26 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 
 	public MaxCubeBridgeHandler(Bridge br) {
 		super(br);
+		freeMemoryChannelUID = new ChannelUID(br.getUID(), CHANNEL_FREE_MEMORY);
+		dutyCycleChannelUID = new ChannelUID(br.getUID(), CHANNEL_DUTY_CYCLE);
 	}
 
+	private final ChannelUID freeMemoryChannelUID;
+	private final ChannelUID dutyCycleChannelUID;
+
 	private Logger logger = LoggerFactory.getLogger(MaxCubeBridgeHandler.class);
 
 	/** The refresh interval which is used to poll given MAX!Cube */
 	private long refreshInterval = 30;
+
+	/**
+	 * The minimum refresh interval in push mode, where polling only serves to
+	 * catch up after missed data
+	 */
+	private static final long PUSH_MODE_REFRESH_INTERVAL = 300;
 	ScheduledFuture<?> refreshJob;
 
-	private ArrayList<Device> devices = new ArrayList<Device>();
+	private final DeviceRegistry devices = new DeviceRegistry();
 	private HashSet<String> lastActiveDevices = new HashSet<String>();
 
 	/** MAX! Thermostat default off temperature */
@@ -98,17 +108,15 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 
 	/** maximum queue size that we're allowing */
 	private static final int MAX_COMMANDS = 50;
-	private ArrayBlockingQueue<SendCommand> commandQueue = new ArrayBlockingQueue<SendCommand>(MAX_COMMANDS);
+	private final SendCommandQueue commandQueue = new SendCommandQueue(MAX_COMMANDS);
 
 	private boolean connectionEstablished = false;
 
-	private SendCommand lastCommandId = null;
-
 	private String ipAddress;
 	private int port;
 	private boolean exclusive;
+	private boolean pushMode;
 	private int maxRequestsPerConnection;
-	private int requestCount = 0;
 	private boolean propertiesSet = false;
 
 	MessageProcessor messageProcessor = new MessageProcessor();
@@ -116,24 +124,41 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 	/**
 	 * Duty cycle of the cube
 	 */
-	private int dutyCycle = 0;
+	private volatile int dutyCycle = 0;
 
 	/**
 	 * The available memory slots of the cube
 	 */
-	private int freeMemorySlots;
+	private volatile int freeMemorySlots;
 
 	/**
-	 * connection socket and reader/writer for execute method
+	 * The connection to the Cube, opened for each exchange unless in exclusive
+	 * mode
 	 */
-	private Socket socket = null;
-	private BufferedReader reader = null;
-	private OutputStreamWriter writer = null;
+	private MaxCubeConnection connection;
 
-	private boolean previousOnline = false;
+	private volatile boolean previousOnline = false;
+
+	/** Guards the processing of messages and the publishing of device states */
+	private final Object messageLock = new Object();
+
+	/** Serializes the polls of the Cube */
+	private final Object refreshLock = new Object();
+
+	/** Serializes the sending of queued commands */
+	private final Object sendLock = new Object();
 
 	private List<DeviceStatusListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
 
+	/** The listeners of a single device, by upper-cased serial number */
+	private ConcurrentMap<String, DeviceStatusListener> deviceListeners = new ConcurrentHashMap<String, DeviceStatusListener>();
+
+	/** The serial numbers of the devices whose listener awaits the device state */
+	private Set<String> pendingListeners = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	private final AtomicLong dispatchedUpdates = new AtomicLong();
+	private final AtomicLong suppressedUpdates = new AtomicLong();
+
 	private ScheduledFuture<?> pollingJob;
 	private Runnable pollingRunnable = new Runnable() {
 		@Override
@@ -142,7 +167,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 		}
 	};
 	private ScheduledFuture<?> sendCommandJob;
-	private long sendCommandInterval = 5;
+	private long sendCommandInterval = 1;
 	private Runnable sendCommandRunnable = new Runnable() {
 		@Override
 		public void run() {
@@ -154,6 +179,8 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 	public void handleCommand(ChannelUID channelUID, Command command) {
 		if (command instanceof RefreshType) {
 			logger.debug("Refresh command received.");
+			// pass the state of all devices, whether it changed or not
+			pendingListeners.addAll(deviceListeners.keySet());
 			refreshData();
 		} else
 			logger.warn("No bridge commands defined.");
@@ -174,7 +201,9 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 		clearDeviceList();
 		connectionEstablished = false;
 
-		socketClose();
+		if (connection != null) {
+			connection.close();
+		}
 		super.dispose();
 	}
 
@@ -188,18 +217,30 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 		refreshInterval = configuration.refreshInterval;
 		exclusive = configuration.exclusive;
 		maxRequestsPerConnection = configuration.maxRequestsPerConnection;
+		pushMode = exclusive && configuration.pushMode;
+		if (configuration.pushMode && !exclusive) {
+			logger.warn("Push mode requires exclusive mode, polling MAX! Cube at {} instead.", ipAddress);
+		}
 		logger.debug("Cube IP         {}.", ipAddress);
 		logger.debug("Port            {}.", port);
 		logger.debug("RefreshInterval {}.", refreshInterval);
 		logger.debug("Exclusive mode  {}.", exclusive);
 		logger.debug("Max Requests    {}.", maxRequestsPerConnection);
+		logger.debug("Push mode       {}.", pushMode);
+
+		if (pushMode) {
+			connection = new MaxCubeConnection(ipAddress, port, maxRequestsPerConnection, messageHandler);
+		} else {
+			connection = new MaxCubeConnection(ipAddress, port, exclusive, maxRequestsPerConnection);
+		}
 
 		startAutomaticRefresh();
 	}
 
 	private synchronized void startAutomaticRefresh() {
 		if (pollingJob == null || pollingJob.isCancelled()) {
-			pollingJob = scheduler.scheduleWithFixedDelay(pollingRunnable, 0, refreshInterval, TimeUnit.SECONDS);
+			long interval = pushMode ? Math.max(refreshInterval, PUSH_MODE_REFRESH_INTERVAL) : refreshInterval;
+			pollingJob = scheduler.scheduleWithFixedDelay(pollingRunnable, 0, interval, TimeUnit.SECONDS);
 		}
 		if (sendCommandJob == null || sendCommandJob.isCancelled()) {
 			sendCommandJob = scheduler.scheduleWithFixedDelay(sendCommandRunnable, 0, sendCommandInterval,
@@ -208,68 +249,223 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 	}
 
 	/**
-	 * Takes a command from the command queue and send it to
-	 * {@link executeCommand} for execution.
+	 * Takes as many commands from the command queue as the duty cycle and free
+	 * memory slots of the Cube allow and sends them to the Cube. A command is
+	 * skipped if a command sent before already set the same mode and
+	 * temperature for its room. A command that could not be sent stays at the
+	 * head of the queue, nothing is sent while the connection backs off.
+	 * 
+	 * In push mode, the state of the devices is requested right after the
+	 * commands, and a connection the Cube closed is reopened.
 	 * 
 	 */
-	private synchronized void sendCommands() {
+	private void sendCommands() {
+		if (pushMode && !connection.isConnected()) {
+			refreshData();
+		}
+		synchronized (sendLock) {
+			sendQueuedCommands();
+		}
+	}
 
-		SendCommand sendCommand = commandQueue.poll();
-		if (sendCommand != null) {
-			String commandString = getCommandString(sendCommand);
+	private void sendQueuedCommands() {
+		if (connection.isBackingOff()) {
+			// keep the commands queued until the Cube can be reached again
+			return;
+		}
+		int budget = commandQueue.getSendBudget(dutyCycle, freeMemorySlots);
+		List<S_Command> sentCommands = new ArrayList<S_Command>();
+		SendCommand sendCommand;
+		while (budget > 0 && (sendCommand = commandQueue.peek()) != null) {
+			S_Command cmd = getCommand(sendCommand);
+			if (cmd == null) {
+				commandQueue.discard(sendCommand);
+				continue;
+			}
+			if (isSentToRoom(cmd, sentCommands)) {
+				logger.debug("Command {} ({}) not sent, already sent to its room.", sendCommand.getId(),
+						sendCommand.getKey());
+				commandQueue.skipped(sendCommand);
+				continue;
+			}
 			// Actual sending of the data to the Max!Cube Lan Gateway
-			if (sendCubeCommand(commandString)) {
+			if (sendCubeCommand(cmd.getCommandString())) {
 				logger.debug("Command {} ({}) sent to MAX! Cube at IP: {}", sendCommand.getId(), sendCommand.getKey(),
 						ipAddress);
-			} else
+				commandQueue.sent(sendCommand);
+				sentCommands.add(cmd);
+			} else {
+				// the command keeps its place, it is sent again once the Cube
+				// can be reached
 				logger.warn("Error sending command {} ({}) to MAX! Cube at IP: {}", sendCommand.getId(),
 						sendCommand.getKey(), ipAddress);
+				break;
+			}
+			// the response of the Cube updated its duty cycle and free memory slots
+			budget = Math.min(budget - 1, commandQueue.getSendBudget(dutyCycle, freeMemorySlots));
+		}
+		if (!sentCommands.isEmpty()) {
+			logger.trace("Command queue depth {}, average latency {} ms, max latency {} ms.", commandQueue.size(),
+					commandQueue.getAverageLatency(), commandQueue.getMaxLatency());
+			if (pushMode) {
+				// the reader publishes the new state of the devices
+				connection.poll(messageHandler);
+			}
+		}
+	}
 
+	private boolean isSentToRoom(S_Command cmd, List<S_Command> sentCommands) {
+		for (S_Command sent : sentCommands) {
+			if (sent.isSameRoomCommand(cmd)) {
+				return true;
+			}
 		}
+		return false;
 	}
 
 	/**
 	 * initiates read data from the maxCube bridge
 	 */
-	private synchronized void refreshData() {
+	private void refreshData() {
+		synchronized (refreshLock) {
+			try {
+				refreshDeviceData();
+				if (connectionEstablished) {
+					updateStatus(ThingStatus.ONLINE);
+					previousOnline = true;
+					publishDevices();
+				} else if (previousOnline)
+					onConnectionLost();
 
-		try {
-			refreshDeviceData();
-			if (connectionEstablished) {
-				updateStatus(ThingStatus.ONLINE);
-				previousOnline = true;
-				for (Device di : devices) {
-					if (lastActiveDevices != null && lastActiveDevices.contains(di.getSerialNumber())) {
-						for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
-							try {
-								deviceStatusListener.onDeviceStateChanged(getThing().getUID(), di);
-							} catch (Exception e) {
-								logger.error("An exception occurred while calling the DeviceStatusListener", e);
-							}
-						}
+			} catch (Exception e) {
+				logger.debug("Exception occurred during execution: {}", e.getMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * Passes the devices that are new or changed to the listeners.
+	 */
+	private void publishDevices() {
+		synchronized (messageLock) {
+			long dispatched = 0;
+			long suppressed = 0;
+			for (Device di : devices.getDevices()) {
+				if (lastActiveDevices != null && lastActiveDevices.contains(di.getSerialNumber())) {
+					if (dispatchDeviceStateChanged(di)) {
+						dispatched++;
+					} else {
+						suppressed++;
 					}
-					// New device, not seen before, pass to Discovery
-					else {
-						for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
-							try {
-								deviceStatusListener.onDeviceAdded(getThing(), di);
-								di.setUpdated(true);
-								deviceStatusListener.onDeviceStateChanged(getThing().getUID(), di);
-							} catch (Exception e) {
-								logger.error("An exception occurred while calling the DeviceStatusListener", e);
-							}
-							lastActiveDevices.add(di.getSerialNumber());
+				}
+				// New device, not seen before, pass to Discovery
+				else {
+					for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
+						try {
+							deviceStatusListener.onDeviceAdded(getThing(), di);
+						} catch (Exception e) {
+							logger.error("An exception occurred while calling the DeviceStatusListener", e);
 						}
 					}
+					lastActiveDevices.add(di.getSerialNumber());
+					di.setUpdated(true);
+					di.setDirty(true);
+					dispatchDeviceStateChanged(di);
+					dispatched++;
 				}
-			} else if (previousOnline)
-				onConnectionLost();
+			}
+			dispatchedUpdates.addAndGet(dispatched);
+			suppressedUpdates.addAndGet(suppressed);
+			logger.trace("Dispatched {} and suppressed {} device updates.", dispatched, suppressed);
+		}
+	}
 
+	/**
+	 * Notifies the listeners of a device if its state changed, or if its
+	 * listener did not receive its state yet.
+	 * 
+	 * @param device
+	 *            the device
+	 * @return true if the listeners were notified
+	 */
+	private boolean dispatchDeviceStateChanged(Device device) {
+		String serialNumber = device.getSerialNumber().toUpperCase();
+		boolean pending = pendingListeners.remove(serialNumber);
+		if (!device.isDirty() && !pending) {
+			return false;
+		}
+		device.setDirty(false);
+
+		DeviceStatusListener listener = deviceListeners.get(serialNumber);
+		if (listener != null) {
+			notifyDeviceStateChanged(listener, device);
+		}
+		for (DeviceStatusListener deviceStatusListener : deviceStatusListeners) {
+			notifyDeviceStateChanged(deviceStatusListener, device);
+		}
+		return true;
+	}
+
+	private void notifyDeviceStateChanged(DeviceStatusListener deviceStatusListener, Device device) {
+		try {
+			deviceStatusListener.onDeviceStateChanged(getThing().getUID(), device);
 		} catch (Exception e) {
-			logger.debug("Exception occurred during execution: {}", e.getMessage(), e);
+			logger.error("An exception occurred while calling the DeviceStatusListener", e);
 		}
 	}
 
+	/**
+	 * @return the number of device updates that were passed to the listeners
+	 */
+	public long getDispatchedUpdates() {
+		return dispatchedUpdates.get();
+	}
+
+	/**
+	 * @return the number of device updates that were not passed to the
+	 *         listeners, as the state of the device did not change
+	 */
+	public long getSuppressedUpdates() {
+		return suppressedUpdates.get();
+	}
+
+	/**
+	 * @return the number of commands waiting to be sent to the Cube
+	 */
+	public int getCommandQueueDepth() {
+		return commandQueue.size();
+	}
+
+	/**
+	 * @return the average time in ms commands waited to be sent to the Cube
+	 */
+	public long getAverageCommandLatency() {
+		return commandQueue.getAverageLatency();
+	}
+
+	/**
+	 * @return the longest time in ms a command waited to be sent to the Cube
+	 */
+	public long getMaxCommandLatency() {
+		return commandQueue.getMaxLatency();
+	}
+
+	/**
+	 * @return the number of commands that replaced a queued command for the
+	 *         same device and channel
+	 */
+	public long getCoalescedCommands() {
+		return commandQueue.getCoalescedCommands();
+	}
+
+	/**
+	 * @return the number of commands not sent, as a command sent before set
+	 *         the same mode and temperature for their room
+	 */
+	public long getRoomCoalescedCommands() {
+		return commandQueue.getRoomCoalescedCommands();
+	}
+
 	public void onConnectionLost() {
 		logger.info("Bridge connection lost. Updating thing status to OFFLINE.");
 		previousOnline = false;
@@ -300,8 +496,35 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 		return result;
 	}
 
+	/**
+	 * Registers the listener of a single device. The listener is only notified
+	 * of the state changes of that device, starting with its current state.
+	 * 
+	 * @param serialNumber
+	 *            the serial number of the device
+	 * @param deviceStatusListener
+	 *            the listener
+	 */
+	public void registerDeviceStatusListener(String serialNumber, DeviceStatusListener deviceStatusListener) {
+		if (serialNumber == null || deviceStatusListener == null) {
+			throw new NullPointerException("It's not allowed to pass a null serialNumber or deviceStatusListener.");
+		}
+		String key = serialNumber.toUpperCase();
+		deviceListeners.put(key, deviceStatusListener);
+		pendingListeners.add(key);
+	}
+
+	public boolean unregisterDeviceStatusListener(String serialNumber, DeviceStatusListener deviceStatusListener) {
+		if (serialNumber == null) {
+			return false;
+		}
+		return deviceListeners.remove(serialNumber.toUpperCase(), deviceStatusListener);
+	}
+
 	public void clearDeviceList() {
-		lastActiveDevices = new HashSet<String>();
+		synchronized (messageLock) {
+			lastActiveDevices = new HashSet<String>();
+		}
 	}
 
 	/**
@@ -320,102 +543,36 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 	 * updates device information for each connected Max!Cube device
 	 */
 	private void refreshDeviceData() {
-		Message message;
-
-		for (String raw : getRawMessage()) {
-			try {
-				logger.trace("message block: '{}'", raw);
-
-				this.messageProcessor.addReceivedLine(raw);
-				if (this.messageProcessor.isMessageAvailable()) {
-					message = this.messageProcessor.pull();
-					message.debug(logger);
-					processMessage(message);
-				}
-			} catch (Exception e) {
-				logger.info("Failed to process message received by MAX! protocol: {}", e.getMessage(), e);
-				this.messageProcessor.reset();
-			}
-		}
-
+		connectionEstablished = connection.poll(messageHandler);
 	}
 
 	/**
-	 * Connects to the Max!Cube Lan gateway and returns the read data
-	 * corresponding Message.
-	 * 
-	 * @return the raw message text as ArrayList of String
+	 * Decodes the lines received from the Cube and processes the messages. In
+	 * push mode, the changes of the devices are published as soon as their
+	 * state is received.
 	 */
-	private ArrayList<String> getRawMessage() {
-		synchronized (MaxCubeBridgeHandler.class) {
-			ArrayList<String> rawMessage = new ArrayList<String>();
-
-			try {
-				String raw = null;
-				if (socket == null) {
-					this.socketConnect();
-				} else {
-					if (maxRequestsPerConnection > 0 && requestCount >= maxRequestsPerConnection) {
-						logger.debug("maxRequestsPerConnection reached, reconnecting.");
-						socket.close();
-						this.socketConnect();
-						requestCount = 0;
-					} else {
-
-						/*
-						 * if the connection is already open (this happens in
-						 * exclusive mode), just send a "l:\r\n" to get the
-						 * latest live informations note that "L:\r\n" or "l:\n"
-						 * would not work.
-						 */
-						logger.debug("Sending state request #{} to MAX! Cube", this.requestCount);
-						if (writer == null) {
-							logger.warn("Can't write to MAX! Cube");
-							this.socketConnect();
+	private MaxCubeConnection.LineHandler messageHandler = new MaxCubeConnection.LineHandler() {
+		@Override
+		public void lineReceived(String raw) {
+			synchronized (messageLock) {
+				try {
+					logger.trace("message block: '{}'", raw);
+
+					messageProcessor.addReceivedLine(raw);
+					if (messageProcessor.isMessageAvailable()) {
+						Message message = messageProcessor.pull();
+						processMessage(message);
+						if (pushMode && message.getType() == MessageType.L && previousOnline) {
+							publishDevices();
 						}
-						writer.write("l:" + '\r' + '\n');
-						writer.flush();
-						requestCount++;
-					}
-				}
-
-				boolean cont = true;
-				while (cont) {
-					raw = reader.readLine();
-					if (raw == null) {
-						cont = false;
-						continue;
-					}
-					rawMessage.add(raw);
-					if (raw.startsWith("L:")) {
-						cont = false;
-						connectionEstablished = true;
 					}
+				} catch (Exception e) {
+					logger.info("Failed to process message received by MAX! protocol: {}", e.getMessage(), e);
+					messageProcessor.reset();
 				}
-
-				if (!exclusive) {
-					socketClose();
-				}
-			} catch (ConnectException e) {
-				logger.debug("Connection timed out on {} port {}", ipAddress, port);
-				connectionEstablished = false;
-				socketClose(); // reconnect on next execution
-			} catch (UnknownHostException e) {
-				logger.debug("Host error occurred during execution: {}", e.getMessage());
-				connectionEstablished = false;
-				socketClose(); // reconnect on next execution
-			} catch (IOException e) {
-				logger.debug("IO error occurred during execution: {}", e.getMessage());
-				connectionEstablished = false;
-				socketClose(); // reconnect on next execution
-			} catch (Exception e) {
-				logger.debug("Exception occurred during execution: {}", e.getMessage(), e);
-				connectionEstablished = false;
-				socketClose(); // reconnect on next execution
 			}
-			return rawMessage;
 		}
-	}
+	};
 
 	/**
 	 * Processes the message
@@ -520,15 +677,6 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 		}	
 	}
 
-	private Device getDevice(String serialNumber, ArrayList<Device> devices) {
-		for (Device device : devices) {
-			if (device.getSerialNumber().toUpperCase().equals(serialNumber)) {
-				return device;
-			}
-		}
-		return null;
-	}
-
 	/**
 	 * Returns the MAX! Device decoded during the last refreshData
 	 * 
@@ -538,32 +686,25 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 	 */
 
 	public Device getDevice(String serialNumber) {
-		return getDevice(serialNumber, devices);
+		return devices.getBySerialNumber(serialNumber);
 	}
 
 	/**
 	 * Takes the device command and puts it on the command queue to be processed
 	 * by the MAX!Cube Lan Gateway. Note that if multiple commands for the same
 	 * item-channel combination are send prior that they are processed by the
-	 * Max!Cube, they will be removed from the queue as they would not be
-	 * meaningful. This will improve the behavior when using sliders in the GUI.
+	 * Max!Cube, only the last one is kept, in the place of the first, as the
+	 * others would not be meaningful. This will improve the behavior when using
+	 * sliders in the GUI.
 	 * 
 	 * @param SendCommand
 	 *            the SendCommand containing the serial number of the device as
 	 *            String the channelUID used to send the command and the the
 	 *            command data
 	 */
-	public synchronized void queueCommand(SendCommand sendCommand) {
+	public void queueCommand(SendCommand sendCommand) {
 
 		if (commandQueue.offer(sendCommand)) {
-			if (lastCommandId != null) {
-				if (lastCommandId.getKey().equals(sendCommand.getKey())) {
-					if (commandQueue.remove(lastCommandId))
-						logger.debug("Removed Command id {} ({}) from queue. Superceeded by {}", lastCommandId.getId(),
-								lastCommandId.getKey(), sendCommand.getId());
-				}
-			}
-			lastCommandId = sendCommand;
 			logger.debug("Command queued id {} ({}).", sendCommand.getId(), sendCommand.getKey());
 
 		} else {
@@ -580,14 +721,14 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 	 *            String the channelUID used to send the command and the the
 	 *            command data
 	 */
-	private String getCommandString(SendCommand sendCommand) {
+	private S_Command getCommand(SendCommand sendCommand) {
 
 		String serialNumber = sendCommand.getDeviceSerial();
 		ChannelUID channelUID = sendCommand.getChannelUID();
 		Command command = sendCommand.getCommand();
 
 		// send command to MAX!Cube LAN Gateway
-		HeatingThermostat device = (HeatingThermostat) getDevice(serialNumber, devices);
+		HeatingThermostat device = (HeatingThermostat) getDevice(serialNumber);
 
 		if (device == null) {
 			logger.debug("Cannot send command to device with serial number {}, device not listed.", serialNumber);
@@ -595,7 +736,7 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 		}
 
 		String rfAddress = device.getRFAddress();
-		String commandString = null;
+		S_Command cmd = null;
 
 		// Temperature setting
 		if (channelUID.getId().equals(CHANNEL_SETTEMP)) {
@@ -608,15 +749,12 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 					decimalType = OnOffType.ON.equals(command) ? DEFAULT_ON_TEMPERATURE : DEFAULT_OFF_TEMPERATURE;
 				}
 
-				S_Command cmd = new S_Command(rfAddress, device.getRoomId(), device.getMode(),
-						decimalType.doubleValue());
-				commandString = cmd.getCommandString();
+				cmd = new S_Command(rfAddress, device.getRoomId(), device.getMode(), decimalType.doubleValue());
 			}
 			// Mode setting
 		} else if (channelUID.getId().equals(CHANNEL_MODE)) {
 			if (command instanceof StringType) {
 				String commandContent = command.toString().trim().toUpperCase();
-				S_Command cmd = null;
 				ThermostatModeType commandThermoType = null;
 				Double setTemp = Double.parseDouble(device.getTemperatureSetpoint().toString());
 				if (commandContent.contentEquals(ThermostatModeType.AUTOMATIC.toString())) {
@@ -634,10 +772,9 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 							commandContent);
 					return null;
 				}
-				commandString = cmd.getCommandString();
 			}
 		}
-		return commandString;
+		return cmd;
 	}
 
 	/**
@@ -646,73 +783,16 @@ public class MaxCubeBridgeHandler extends BaseBridgeHandler {
 	 * @param commandString
 	 */
 	private boolean sendCubeCommand(String commandString) {
-		boolean sendSuccess = false;
-		synchronized (MaxCubeBridgeHandler.class) {
-			if (commandString != null) {
-				try {
-					if (socket == null) {
-						this.socketConnect();
-					}
-					writer.write(commandString);
-					writer.flush();
-					String raw = reader.readLine();
-					if (raw != null) {
-						try {
-							this.messageProcessor.addReceivedLine(raw);
-							while (!this.messageProcessor.isMessageAvailable()) {
-								raw = reader.readLine();
-								this.messageProcessor.addReceivedLine(raw);
-							}
-
-							Message message = this.messageProcessor.pull();
-							message.debug(logger);
-							processMessage(message);
-						} catch (Exception e) {
-							logger.info("Error while handling response from MAX! Cube lan gateway: {}", e.getMessage(), e);
-							this.messageProcessor.reset();
-						}
-					}
-					if (!exclusive) {
-						socketClose();
-					}
-					sendSuccess = true;
-				} catch (UnknownHostException e) {
-					logger.warn("Cannot establish connection with MAX! Cube lan gateway while sending command to '{}'",
-							ipAddress,e.getMessage(), e);
-					socketClose(); // reconnect on next execution
-				} catch (IOException e) {
-					logger.warn("Cannot write data from MAX! Cube lan gateway while connecting to '{}'", ipAddress,e.getMessage(), e);
-					socketClose(); // reconnect on next execution
-				}
-				logger.trace("Command content: '{}'", commandString);
-			} else {
-				logger.debug("Null Command not sent to {}", ipAddress);
-			}
-		}
-		return sendSuccess;
-	}
-
-	private boolean socketConnect() throws UnknownHostException, IOException {
-		socket = new Socket(ipAddress, port);
-		socket.setSoTimeout((int) (2000));
-		logger.debug("Open new connection... to {} port {}", ipAddress, port);
-		reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-		writer = new OutputStreamWriter(socket.getOutputStream());
-		return true;
-	}
-
-	private void socketClose() {
-		try {
-			socket.close();
-		} catch (Exception e) {
+		if (commandString == null) {
+			logger.debug("Null Command not sent to {}", ipAddress);
+			return false;
 		}
-		socket = null;
+		logger.trace("Command content: '{}'", commandString);
+		return connection.send(commandString, messageHandler);
 	}
 
 	private void updateCubeState () {
-		updateState(new ChannelUID(getThing().getUID(), CHANNEL_FREE_MEMORY),
-				(State) new DecimalType(freeMemorySlots) );
-		updateState(new ChannelUID(getThing().getUID(), CHANNEL_DUTY_CYCLE),
-				(State) new DecimalType(dutyCycle) );
+		updateState(freeMemoryChannelUID, (State) new DecimalType(freeMemorySlots) );
+		updateState(dutyCycleChannelUID, (State) new DecimalType(dutyCycle) );
 	}
 }
@@ -0,0 +1,379 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.handler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link MaxCubeConnection} manages the connection to a single MAX! Cube. In
+ * exclusive mode the connection is kept open for as long as the Cube allows,
+ * otherwise it is closed after each exchange, so that other applications can
+ * connect to the Cube. After a failure, connecting is retried with an
+ * exponential backoff.
+ *
+ * Each bridge has a connection of its own, so that exchanges with different
+ * Cubes do not wait for each other.
+ *
+ * In push mode, which requires exclusive mode, a reader thread passes every
+ * line the Cube sends to a listener as soon as it arrives, including the data
+ * the Cube sends unasked. Requests then only wait for the reader to receive
+ * their response, the handlers passed with them are not used.
+ *
+ * @author agent - Initial contribution
+ */
+class MaxCubeConnection {
+
+	/**
+	 * Receives the lines sent by the Cube.
+	 */
+	interface LineHandler {
+
+		/**
+		 * @param line
+		 *            the line received from the Cube
+		 */
+		void lineReceived(String line) throws Exception;
+	}
+
+	private Logger logger = LoggerFactory.getLogger(MaxCubeConnection.class);
+
+	private static final int CONNECT_TIMEOUT = 2000;
+	private static final int READ_TIMEOUT = 2000;
+	private static final long MIN_BACKOFF = 1000;
+	private static final long MAX_BACKOFF = 60000;
+
+	private static final String STATE_REQUEST = "l:" + '\r' + '\n';
+
+	/** The message ending the data the Cube sends on connect or on an l: request */
+	private static final String STATE_RESPONSE = "L:";
+
+	/** The message answering an s: command */
+	private static final String COMMAND_RESPONSE = "S:";
+
+	private final String ipAddress;
+	private final int port;
+	private final boolean exclusive;
+	private final int maxRequestsPerConnection;
+	private final LineHandler listener;
+
+	private Socket socket = null;
+	private BufferedReader reader = null;
+	private OutputStreamWriter writer = null;
+	private int requestCount = 0;
+
+	/** The reader thread in push mode */
+	private Reader readerThread = null;
+
+	/** Guards the response counts, which the reader thread increments */
+	private final Object responseLock = new Object();
+	private long stateResponses = 0;
+	private long commandResponses = 0;
+
+	private long backoff = 0;
+	private long nextConnectTime = 0;
+
+	MaxCubeConnection(String ipAddress, int port, boolean exclusive, int maxRequestsPerConnection) {
+		this(ipAddress, port, exclusive, maxRequestsPerConnection, null);
+	}
+
+	/**
+	 * Creates a connection in push mode.
+	 *
+	 * @param listener
+	 *            receives every line sent by the Cube, on the reader thread
+	 */
+	MaxCubeConnection(String ipAddress, int port, int maxRequestsPerConnection, LineHandler listener) {
+		this(ipAddress, port, true, maxRequestsPerConnection, listener);
+	}
+
+	private MaxCubeConnection(String ipAddress, int port, boolean exclusive, int maxRequestsPerConnection,
+			LineHandler listener) {
+		this.ipAddress = ipAddress;
+		this.port = port;
+		this.exclusive = exclusive;
+		this.maxRequestsPerConnection = maxRequestsPerConnection;
+		this.listener = listener;
+	}
+
+	/**
+	 * Requests the state of all devices. On a new connection the Cube sends it
+	 * unasked, on an open connection it is requested with an l: command.
+	 *
+	 * @param handler
+	 *            receives the lines up to and including the L message
+	 * @return true if the L message was received
+	 */
+	synchronized boolean poll(LineHandler handler) {
+		if (!mayConnect()) {
+			return false;
+		}
+		try {
+			if (maxRequestsPerConnection > 0 && requestCount >= maxRequestsPerConnection) {
+				logger.debug("maxRequestsPerConnection reached, reconnecting.");
+				close();
+			}
+
+			long responses = getResponseCount(STATE_RESPONSE);
+			if (!isConnected()) {
+				connect();
+			} else {
+				logger.debug("Sending state request #{} to MAX! Cube", requestCount);
+				write(STATE_REQUEST);
+			}
+
+			boolean complete = listener != null ? awaitResponse(STATE_RESPONSE, responses) : read(handler,
+					STATE_RESPONSE);
+			finish();
+			return complete;
+		} catch (Exception e) {
+			onFailure(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Sends a command to the Cube. On a new connection the data the Cube sends
+	 * unasked is passed to the handler first.
+	 *
+	 * @param command
+	 *            the command string, including the line ending
+	 * @param handler
+	 *            receives the lines up to and including the S message
+	 * @return true if the command was sent
+	 */
+	synchronized boolean send(String command, LineHandler handler) {
+		if (!mayConnect()) {
+			return false;
+		}
+		try {
+			if (!isConnected()) {
+				connect();
+				if (listener == null) {
+					read(handler, STATE_RESPONSE);
+				}
+			}
+
+			long responses = getResponseCount(COMMAND_RESPONSE);
+			write(command);
+			if (listener != null) {
+				if (!awaitResponse(COMMAND_RESPONSE, responses)) {
+					logger.debug("No response from MAX! Cube at {} to command", ipAddress);
+				}
+			} else {
+				read(handler, COMMAND_RESPONSE);
+			}
+			finish();
+			return true;
+		} catch (Exception e) {
+			onFailure(e);
+			return false;
+		}
+	}
+
+	synchronized void close() {
+		if (readerThread != null) {
+			readerThread.stopped = true;
+			readerThread = null;
+		}
+		try {
+			if (socket != null) {
+				socket.close();
+			}
+		} catch (Exception e) {
+		}
+		socket = null;
+		reader = null;
+		writer = null;
+		requestCount = 0;
+	}
+
+	synchronized boolean isConnected() {
+		return socket != null && (readerThread == null || !readerThread.closed);
+	}
+
+	/**
+	 * @return true while the connection failed and is not retried yet
+	 */
+	synchronized boolean isBackingOff() {
+		return !isConnected() && System.currentTimeMillis() < nextConnectTime;
+	}
+
+	private boolean mayConnect() {
+		if (isBackingOff()) {
+			logger.trace("Not reconnecting to MAX! Cube at {} before the backoff expired", ipAddress);
+			return false;
+		}
+		return true;
+	}
+
+	private void connect() throws IOException {
+		// clean up after a connection the Cube closed while in push mode
+		close();
+
+		logger.debug("Open new connection... to {} port {}", ipAddress, port);
+		Socket newSocket = new Socket();
+		try {
+			newSocket.connect(new InetSocketAddress(ipAddress, port), CONNECT_TIMEOUT);
+			// in push mode the reader waits for the Cube as long as it takes, a
+			// timeout would lose the part of a line read so far; close()
+			// unblocks it
+			newSocket.setSoTimeout(listener != null ? 0 : READ_TIMEOUT);
+			reader = new BufferedReader(new InputStreamReader(newSocket.getInputStream()));
+			writer = new OutputStreamWriter(newSocket.getOutputStream());
+		} catch (IOException e) {
+			newSocket.close();
+			throw e;
+		}
+		socket = newSocket;
+		requestCount = 0;
+
+		if (listener != null) {
+			readerThread = new Reader(newSocket, reader);
+			readerThread.start();
+		}
+	}
+
+	private void write(String data) throws IOException {
+		writer.write(data);
+		writer.flush();
+		requestCount++;
+	}
+
+	private boolean read(LineHandler handler, String lastMessage) throws Exception {
+		String line;
+		while ((line = reader.readLine()) != null) {
+			handler.lineReceived(line);
+			if (line.startsWith(lastMessage)) {
+				return true;
+			}
+		}
+		// the Cube closed the connection
+		close();
+		return false;
+	}
+
+	private long getResponseCount(String lastMessage) {
+		synchronized (responseLock) {
+			return STATE_RESPONSE.equals(lastMessage) ? stateResponses : commandResponses;
+		}
+	}
+
+	/**
+	 * Waits for the reader thread to receive a response.
+	 *
+	 * @param lastMessage
+	 *            the message type of the response
+	 * @param count
+	 *            the number of responses received before the request
+	 * @return true if the response was received
+	 */
+	private boolean awaitResponse(String lastMessage, long count) throws InterruptedException {
+		Reader current = readerThread;
+		long deadline = System.currentTimeMillis() + READ_TIMEOUT;
+		synchronized (responseLock) {
+			while (getResponseCount(lastMessage) == count) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0 || current == null || current.closed) {
+					return false;
+				}
+				responseLock.wait(remaining);
+			}
+			return true;
+		}
+	}
+
+	private void finish() {
+		backoff = 0;
+		nextConnectTime = 0;
+		if (!exclusive) {
+			close();
+		}
+	}
+
+	private void onFailure(Exception e) {
+		close();
+		backoff = backoff == 0 ? MIN_BACKOFF : Math.min(backoff * 2, MAX_BACKOFF);
+		nextConnectTime = System.currentTimeMillis() + backoff;
+		logger.debug("Connection to MAX! Cube at {} port {} failed, retrying in {} ms: {}",
+				new Object[] { ipAddress, port, backoff, e.getMessage() });
+	}
+
+	/**
+	 * Reads the lines sent by the Cube in push mode, until the connection is
+	 * closed.
+	 */
+	private final class Reader extends Thread {
+
+		private final Socket readerSocket;
+		private final BufferedReader in;
+
+		/** Set when the connection is closed on purpose */
+		private volatile boolean stopped = false;
+
+		/** Set when the reader stopped reading */
+		private volatile boolean closed = false;
+
+		Reader(Socket readerSocket, BufferedReader in) {
+			super("MAX! Cube reader " + ipAddress);
+			setDaemon(true);
+			this.readerSocket = readerSocket;
+			this.in = in;
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (!stopped) {
+					String line = in.readLine();
+					if (line == null) {
+						logger.debug("MAX! Cube at {} closed the connection", ipAddress);
+						break;
+					}
+					try {
+						listener.lineReceived(line);
+					} catch (Exception e) {
+						logger.debug("Exception occurred while processing '{}': {}", line, e.getMessage(), e);
+					}
+					if (line.startsWith(STATE_RESPONSE) || line.startsWith(COMMAND_RESPONSE)) {
+						synchronized (responseLock) {
+							if (line.startsWith(STATE_RESPONSE)) {
+								stateResponses++;
+							} else {
+								commandResponses++;
+							}
+							responseLock.notifyAll();
+						}
+					}
+				}
+			} catch (IOException e) {
+				if (!stopped) {
+					logger.debug("Reading from MAX! Cube at {} failed: {}", ipAddress, e.getMessage());
+				}
+			} finally {
+				closed = true;
+				try {
+					readerSocket.close();
+				} catch (IOException e) {
+				}
+				synchronized (responseLock) {
+					responseLock.notifyAll();
+				}
+			}
+		}
+	}
+
+}
@@ -34,6 +34,7 @@ import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.max.MaxBinding;
+import org.openhab.binding.max.internal.ChannelStateCache;
 import org.openhab.binding.max.internal.message.Device;
 import org.openhab.binding.max.internal.message.EcoSwitch;
 import org.openhab.binding.max.internal.message.HeatingThermostat;
@@ -60,8 +61,11 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
 	private boolean propertiesSet = false;
 	private boolean configSet = false;
 
+	private final ChannelStateCache channelStateCache;
+
 	public MaxDevicesHandler(Thing thing) {
 		super(thing);
+		channelStateCache = new ChannelStateCache(thing.getUID());
 	}
 
 	/**
@@ -103,7 +107,7 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
 		if (bridgeHandler != null)
 			bridgeHandler.clearDeviceList();
 		if (bridgeHandler != null)
-			bridgeHandler.unregisterDeviceStatusListener(this);
+			bridgeHandler.unregisterDeviceStatusListener(maxDeviceSerial, this);
 		bridgeHandler = null;
 		logger.debug("Thing {} {} disposed.", getThing().getUID(), maxDeviceSerial);
 		super.dispose();
@@ -149,7 +153,9 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
 			ThingHandler handler = bridge.getHandler();
 			if (handler instanceof MaxCubeBridgeHandler) {
 				this.bridgeHandler = (MaxCubeBridgeHandler) handler;
-				this.bridgeHandler.registerDeviceStatusListener(this);
+				if (maxDeviceSerial != null) {
+					this.bridgeHandler.registerDeviceStatusListener(maxDeviceSerial, this);
+				}
 			} else {
 				logger.debug("No available bridge handler found for {} bridge {} .", maxDeviceSerial,
 						bridge.getUID());
@@ -202,28 +208,28 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
 				case WallMountedThermostat:
 				case HeatingThermostat:
 				case HeatingThermostatPlus:
-					updateState(new ChannelUID(getThing().getUID(), CHANNEL_SETTEMP),
+					updateState(channelStateCache.getChannelUID(CHANNEL_SETTEMP),
 							(State) ((HeatingThermostat) device).getTemperatureSetpoint());
-					updateState(new ChannelUID(getThing().getUID(), CHANNEL_MODE),
+					updateState(channelStateCache.getChannelUID(CHANNEL_MODE),
 							(State) ((HeatingThermostat) device).getModeString());
-					updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
+					updateState(channelStateCache.getChannelUID(CHANNEL_BATTERY),
 							(State) ((HeatingThermostat) device).getBatteryLow());
-					updateState(new ChannelUID(getThing().getUID(), CHANNEL_VALVE),
+					updateState(channelStateCache.getChannelUID(CHANNEL_VALVE),
 							(State) ((HeatingThermostat) device).getValvePosition());
 					State actualTemp =  ((HeatingThermostat) device).getTemperatureActual();
 					if ( actualTemp != DecimalType.ZERO) {
-						updateState(new ChannelUID(getThing().getUID(), CHANNEL_ACTUALTEMP),
+						updateState(channelStateCache.getChannelUID(CHANNEL_ACTUALTEMP),
 								actualTemp);
 					} 
 					break;
 				case ShutterContact:
-					updateState(new ChannelUID(getThing().getUID(), CHANNEL_CONTACT_STATE),
+					updateState(channelStateCache.getChannelUID(CHANNEL_CONTACT_STATE),
 							(State) ((ShutterContact) device).getShutterState());
-					updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
+					updateState(channelStateCache.getChannelUID(CHANNEL_BATTERY),
 							(State) ((ShutterContact) device).getBatteryLow());
 					break;
 				case EcoSwitch:
-					updateState(new ChannelUID(getThing().getUID(), CHANNEL_BATTERY),
+					updateState(channelStateCache.getChannelUID(CHANNEL_BATTERY),
 							(State) ((EcoSwitch) device).getBatteryLow());
 					break;
 				default:
@@ -240,7 +246,7 @@ public class MaxDevicesHandler extends BaseThingHandler implements DeviceStatusL
 	@Override
 	public void onDeviceRemoved(MaxCubeBridgeHandler bridge, Device device) {
 		if (device.getSerialNumber().equals(maxDeviceSerial)) {
-			bridgeHandler.unregisterDeviceStatusListener(this);
+			bridgeHandler.unregisterDeviceStatusListener(maxDeviceSerial, this);
 			bridgeHandler = null;
 			forceRefresh = true;
 			updateStatus(ThingStatus.OFFLINE);
@@ -12,7 +12,6 @@ import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.apache.commons.net.util.Base64;
 import org.openhab.binding.max.internal.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,11 +50,13 @@ public final class C_Message extends Message {
 	
 	public C_Message(String raw) {
 		super(raw);
-		String[] tokens = this.getPayload().split(Message.DELIMETER);
+		// C:rfAddress,data
+		int dataStart = raw.indexOf(Message.DELIMETER) + 1;
+		int dataEnd = raw.indexOf(Message.DELIMETER, dataStart);
 
-		rfAddress = tokens[0];
+		rfAddress = raw.substring(2, dataStart - 1);
 
-		byte[] bytes = Base64.decodeBase64(tokens[1].getBytes());
+		byte[] bytes = Utils.decodeBase64(raw, dataStart, dataEnd < 0 ? raw.length() : dataEnd);
 
 		int[] data = new int[bytes.length];
 
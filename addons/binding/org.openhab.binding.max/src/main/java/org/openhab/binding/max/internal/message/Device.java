@@ -8,6 +8,7 @@
  */
 package org.openhab.binding.max.internal.message;
 
+import java.nio.ByteBuffer;
 import java.util.Date;
 import java.util.List;
 
@@ -34,6 +35,8 @@ public abstract class Device {
 	private DeviceConfiguration config;
 
 	private boolean updated;
+	private boolean dirty;
+	private byte[] raw;
 	private boolean batteryLow;
 
 	private boolean initialized;
@@ -102,27 +105,79 @@ public abstract class Device {
 	}
 	
 	public static Device update(byte[] raw, List<DeviceConfiguration> configurations, Device device) {
+		return update(ByteBuffer.wrap(raw), 0, raw.length, configurations, device);
+	}
 
-		String rfAddress = device.getRFAddress();
+	/**
+	 * Updates a device with its record of an L message.
+	 * 
+	 * @param data
+	 *            the buffer holding the record
+	 * @param offset
+	 *            the position of the record in the buffer
+	 * @param length
+	 *            the length of the record
+	 * @param configurations
+	 * @param device
+	 *            the device to be updated
+	 * @return the updated device
+	 */
+	public static Device update(ByteBuffer data, int offset, int length, List<DeviceConfiguration> configurations,
+			Device device) {
+
+		// nothing to decode if the device reports the very same data
+		if (device.hasData(data, offset, length)) {
+			return device;
+		}
+		if (device.raw == null || device.raw.length != length) {
+			device.raw = new byte[length];
+		}
+		for (int i = 0; i < length; i++) {
+			device.raw[i] = data.get(offset + i);
+		}
+		device.dirty = true;
 
-		// byte 4 is skipped
+		decode(device.raw, device);
+		return device;
+	}
 
-		// multiple device information are encoded in those particular bytes
-		boolean[] bits1 = Utils.getBits(Utils.fromByte(raw[4]));
-		boolean[] bits2 = Utils.getBits(Utils.fromByte(raw[5]));
+	private boolean hasData(ByteBuffer data, int offset, int length) {
+		if (raw == null || raw.length != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (raw[i] != data.get(offset + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
 
-		device.setInitialized(bits1[1]);
-		device.setAnswer(bits1[2]);
-		device.setError(bits1[3]);
-		device.setValid(bits1[4]);
+	private static void decode(byte[] raw, Device device) {
 
-		device.setDstSettingActive(bits2[3]);
-		device.setGatewayKnown(bits2[4]);
-		device.setPanelLocked(bits2[5]);
-		device.setLinkStatusError(bits2[6]);
-		device.setBatteryLow(bits2[7]);
+		String rfAddress = device.getRFAddress();
 
-		logger.trace ("Device {} type {} L Message length: {} content: {}", rfAddress,device.getType().toString(), raw.length,Utils.getHex(raw));
+		// byte 4 is skipped
+
+		// multiple device information are encoded in those particular bytes
+		int bits1 = raw[4] & 0xFF;
+		int bits2 = raw[5] & 0xFF;
+
+		device.setInitialized(isSet(bits1, 1));
+		device.setAnswer(isSet(bits1, 2));
+		device.setError(isSet(bits1, 3));
+		device.setValid(isSet(bits1, 4));
+
+		device.setDstSettingActive(isSet(bits2, 3));
+		device.setGatewayKnown(isSet(bits2, 4));
+		device.setPanelLocked(isSet(bits2, 5));
+		device.setLinkStatusError(isSet(bits2, 6));
+		device.setBatteryLow(isSet(bits2, 7));
+
+		if (logger.isTraceEnabled()) {
+			logger.trace("Device {} type {} L Message length: {} content: {}", rfAddress, device.getType().toString(),
+					raw.length, Utils.getHex(raw));
+		}
 
 		// TODO move the device specific readings into the sub classes
 		switch (device.getType()) {
@@ -131,13 +186,13 @@ public abstract class Device {
 		case HeatingThermostatPlus:
 			HeatingThermostat heatingThermostat = (HeatingThermostat) device;
 			// "xxxx xx00 = automatic, xxxx xx01 = manual, xxxx xx10 = vacation, xxxx xx11 = boost":
-			if (bits2[1] == false && bits2[0] == false) {
+			if (!isSet(bits2, 1) && !isSet(bits2, 0)) {
 				heatingThermostat.setMode(ThermostatModeType.AUTOMATIC);
-			} else if (bits2[1] == false && bits2[0] == true) {
+			} else if (!isSet(bits2, 1) && isSet(bits2, 0)) {
 				heatingThermostat.setMode(ThermostatModeType.MANUAL);
-			} else if (bits2[1] == true && bits2[0] == false) {
+			} else if (isSet(bits2, 1) && !isSet(bits2, 0)) {
 				heatingThermostat.setMode(ThermostatModeType.VACATION);
-			} else if (bits2[1] == true && bits2[0] == true) {
+			} else if (isSet(bits2, 1) && isSet(bits2, 0)) {
 				heatingThermostat.setMode(ThermostatModeType.BOOST);
 			} else {
 				logger.debug ("Device {}: Unknown mode",rfAddress) ;
@@ -149,8 +204,7 @@ public abstract class Device {
 			// 9 2 858B Date until (05-09-2011) (see Encoding/Decoding
 			// date/time)
 			// B 1 2E Time until (23:00) (see Encoding/Decoding date/time)
-			String hexDate = Utils.toHex(raw[8] & 0xFF, raw[9] & 0xFF);
-			int dateValue = Utils.fromHex(hexDate);
+			int dateValue = ((raw[8] & 0xFF) << 8) | (raw[9] & 0xFF);
 			int timeValue = raw[10] & 0xFF;
 			Date date = Utils.resolveDateTime(dateValue, timeValue);
 			heatingThermostat.setDateSetpoint(date);
@@ -171,14 +225,16 @@ public abstract class Device {
 			heatingThermostat.setTemperatureActual((double)actualTemp / 10);
 			break;
 		case EcoSwitch:
-			String eCoSwitchData = Utils.toHex(raw[3] & 0xFF, raw[4] & 0xFF, raw[5] & 0xFF);
-			logger.trace ("EcoSwitch Device {} status bytes : {}", rfAddress, eCoSwitchData);
+			if (logger.isTraceEnabled()) {
+				logger.trace("EcoSwitch Device {} status bytes : {}", rfAddress,
+						Utils.toHex(raw[3] & 0xFF, raw[4] & 0xFF, raw[5] & 0xFF));
+			}
 			EcoSwitch ecoswitch = (EcoSwitch) device;
 			// xxxx xx10 = shutter open, xxxx xx00 = shutter closed
-			if (bits2[1] == true && bits2[0] == false) {
+			if (isSet(bits2, 1) && !isSet(bits2, 0)) {
 				ecoswitch.setEcoMode(OnOffType.ON);
 				logger.trace ("Device {} status: ON", rfAddress);
-			} else if (bits2[1] == false && bits2[0] == false) {
+			} else if (!isSet(bits2, 1) && !isSet(bits2, 0)) {
 				ecoswitch.setEcoMode(OnOffType.OFF);
 				logger.trace ("Device {} status: OFF", rfAddress);
 			} else {
@@ -188,10 +244,10 @@ public abstract class Device {
 		case ShutterContact:
 			ShutterContact shutterContact = (ShutterContact) device;
 			// xxxx xx10 = shutter open, xxxx xx00 = shutter closed
-			if (bits2[1] == true && bits2[0] == false) {
+			if (isSet(bits2, 1) && !isSet(bits2, 0)) {
 				shutterContact.setShutterState(OpenClosedType.OPEN);
 				logger.trace ("Device {} status: Open", rfAddress);
-			} else if (bits2[1] == false && bits2[0] == false) {
+			} else if (!isSet(bits2, 1) && !isSet(bits2, 0)) {
 				shutterContact.setShutterState(OpenClosedType.CLOSED);
 				logger.trace ("Device {} status: Closed", rfAddress);
 			} else {
@@ -200,11 +256,19 @@ public abstract class Device {
 
 			break;
 		default:
-			logger.debug("Unhandled Device. DataBytes: " + Utils.getHex(raw));
+			if (logger.isDebugEnabled()) {
+				logger.debug("Unhandled Device. DataBytes: {}", Utils.getHex(raw));
+			}
 			break;
 
 		}
-		return device;
+	}
+
+	/**
+	 * Returns whether a bit is set, the least significant bit being bit 0.
+	 */
+	private static boolean isSet(int value, int bit) {
+		return ((value >> bit) & 0x1) == 1;
 	}
 
 	private final void setBatteryLow(boolean batteryLow) {
@@ -289,6 +353,18 @@ public abstract class Device {
 		this.updated = updated;
 	}
 
+	/**
+	 * Returns whether the data of the device changed since the last time it
+	 * was marked clean.
+	 */
+	public boolean isDirty() {
+		return dirty;
+	}
+
+	public void setDirty(boolean dirty) {
+		this.dirty = dirty;
+	}
+
 	public boolean isInitialized() {
 		return initialized;
 	}
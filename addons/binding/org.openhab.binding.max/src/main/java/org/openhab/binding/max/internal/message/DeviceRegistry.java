@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.message;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.openhab.binding.max.internal.Utils;
+
+/**
+ * The devices known to a MAX! Cube, indexed by serial number and by RF
+ * address. The registry can be read concurrently with it being updated.
+ *
+ * @author agent - Initial contribution
+ */
+public final class DeviceRegistry {
+
+	private final ConcurrentMap<String, Device> devicesBySerialNumber = new ConcurrentHashMap<String, Device>();
+
+	/**
+	 * The devices sorted by RF address. The index is replaced as a whole when a
+	 * device is added, so that lookups need neither locking nor boxing.
+	 */
+	private volatile Index devicesByRFAddress = new Index(new int[0], new Device[0]);
+
+	/**
+	 * Adds a device to the registry, replacing any device with the same RF
+	 * address.
+	 *
+	 * @param device
+	 *            the device to be added
+	 */
+	public synchronized void add(Device device) {
+		int rfAddress = toRFAddress(device.getRFAddress());
+		Index index = devicesByRFAddress;
+		int position = Arrays.binarySearch(index.rfAddresses, rfAddress);
+
+		int[] rfAddresses;
+		Device[] devices;
+		if (position >= 0) {
+			Device previous = index.devices[position];
+			devicesBySerialNumber.remove(normalize(previous.getSerialNumber()), previous);
+			rfAddresses = index.rfAddresses;
+			devices = index.devices.clone();
+		} else {
+			position = -position - 1;
+			int size = index.devices.length;
+			rfAddresses = new int[size + 1];
+			devices = new Device[size + 1];
+			System.arraycopy(index.rfAddresses, 0, rfAddresses, 0, position);
+			System.arraycopy(index.devices, 0, devices, 0, position);
+			System.arraycopy(index.rfAddresses, position, rfAddresses, position + 1, size - position);
+			System.arraycopy(index.devices, position, devices, position + 1, size - position);
+			rfAddresses[position] = rfAddress;
+		}
+		devices[position] = device;
+
+		devicesByRFAddress = new Index(rfAddresses, devices);
+		devicesBySerialNumber.put(normalize(device.getSerialNumber()), device);
+	}
+
+	/**
+	 * Returns the device with the given serial number, ignoring case.
+	 *
+	 * @param serialNumber
+	 *            the serial number of the device
+	 * @return the device or <code>null</code> if there is no such device
+	 */
+	public Device getBySerialNumber(String serialNumber) {
+		if (serialNumber == null) {
+			return null;
+		}
+		return devicesBySerialNumber.get(normalize(serialNumber));
+	}
+
+	/**
+	 * Returns the device with the given RF address.
+	 *
+	 * @param rfAddress
+	 *            the 3-byte RF address of the device
+	 * @return the device or <code>null</code> if there is no such device
+	 */
+	public Device getByRFAddress(int rfAddress) {
+		Index index = devicesByRFAddress;
+		int position = Arrays.binarySearch(index.rfAddresses, rfAddress);
+		return position >= 0 ? index.devices[position] : null;
+	}
+
+	/**
+	 * Returns all devices in the registry.
+	 *
+	 * @return an unmodifiable view of the devices
+	 */
+	public Collection<Device> getDevices() {
+		return Collections.unmodifiableList(Arrays.asList(devicesByRFAddress.devices));
+	}
+
+	public int size() {
+		return devicesByRFAddress.devices.length;
+	}
+
+	public synchronized void clear() {
+		devicesByRFAddress = new Index(new int[0], new Device[0]);
+		devicesBySerialNumber.clear();
+	}
+
+	/**
+	 * Returns the RF address encoded in the first three bytes of the given
+	 * data, as found at the start of an L message token.
+	 *
+	 * @param raw
+	 *            the raw data
+	 * @return the RF address as integer
+	 */
+	public static int toRFAddress(byte[] raw) {
+		return ((raw[0] & 0xFF) << 16) | ((raw[1] & 0xFF) << 8) | (raw[2] & 0xFF);
+	}
+
+	/**
+	 * Returns the RF address encoded in three bytes of the given buffer.
+	 *
+	 * @param data
+	 *            the buffer
+	 * @param offset
+	 *            the position of the first byte of the RF address
+	 * @return the RF address as integer
+	 */
+	public static int toRFAddress(ByteBuffer data, int offset) {
+		return ((data.get(offset) & 0xFF) << 16) | ((data.get(offset + 1) & 0xFF) << 8) | (data.get(offset + 2) & 0xFF);
+	}
+
+	/**
+	 * Returns the RF address represented by the given hexadecimal string.
+	 *
+	 * @param rfAddress
+	 *            the RF address as hex value
+	 * @return the RF address as integer
+	 */
+	public static int toRFAddress(String rfAddress) {
+		return Utils.fromHex(rfAddress);
+	}
+
+	private static String normalize(String serialNumber) {
+		return serialNumber.toUpperCase();
+	}
+
+	private static final class Index {
+
+		private final int[] rfAddresses;
+		private final Device[] devices;
+
+		Index(int[] rfAddresses, Device[] devices) {
+			this.rfAddresses = rfAddresses;
+			this.devices = devices;
+		}
+	}
+
+}
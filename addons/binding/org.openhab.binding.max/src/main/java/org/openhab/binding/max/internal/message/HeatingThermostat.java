@@ -13,6 +13,7 @@ import java.util.Date;
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.max.internal.ChannelStateCache;
 
 /**
  * MAX!Cube heating thermostat.
@@ -22,6 +23,16 @@ import org.eclipse.smarthome.core.types.State;
  * @since 1.4.0
  */
 public class HeatingThermostat extends Device {
+
+	/** The states of the mode channel, which are reused */
+	private static final StringType[] MODE_STRINGS = new StringType[ThermostatModeType.values().length];
+
+	static {
+		for (ThermostatModeType mode : ThermostatModeType.values()) {
+			MODE_STRINGS[mode.ordinal()] = new StringType(mode.toString());
+		}
+	}
+
 	private ThermostatModeType mode;
 
 	/** Valve position in % */
@@ -61,7 +72,7 @@ public class HeatingThermostat extends Device {
 	 * Returns the current mode of the thermostat.
 	 */
 	public StringType getModeString() {
-		return new StringType (this.mode.toString());
+		return MODE_STRINGS[this.mode.ordinal()];
 	}
 
 	/**
@@ -92,7 +103,7 @@ public class HeatingThermostat extends Device {
 	 * 			the valve position as <code>DecimalType</code>
 	 */
 	public DecimalType getValvePosition() {
-		return new DecimalType(this.valvePosition);
+		return ChannelStateCache.getPercentage(this.valvePosition);
 	}
 
 	public void setDateSetpoint(Date date) {
@@ -8,6 +8,7 @@
  */
 package org.openhab.binding.max.internal.message;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -16,6 +17,7 @@ import org.openhab.binding.max.internal.Utils;
 import org.openhab.binding.max.internal.message.MaxTokenizer;
 import org.apache.commons.net.util.Base64;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -28,6 +30,11 @@ import org.slf4j.Logger;
  */
 public final class L_Message extends Message {
 
+	private static final Logger logger = LoggerFactory.getLogger(L_Message.class);
+
+	/** The buffers the messages are decoded into, reused by each thread */
+	private static final ThreadLocal<ByteBuffer> BUFFERS = new ThreadLocal<ByteBuffer>();
+
 	public L_Message(String raw) {
 		super(raw);
 	}
@@ -51,40 +58,53 @@ public final class L_Message extends Message {
 		return devices;
 	}
 	
-	public Collection<? extends Device> updateDevices(List<Device> devices, List<DeviceConfiguration> configurations) {
-
-		byte[] decodedRawMessage = Base64.decodeBase64(getPayload().getBytes());
-
-		MaxTokenizer tokenizer = new MaxTokenizer(decodedRawMessage);
+	/**
+	 * Updates the devices in the registry with the information of this
+	 * message, creating the devices that are not known yet.
+	 * 
+	 * @param devices
+	 *            the registry of the known devices
+	 * @param configurations
+	 *            the configurations used to create new devices
+	 */
+	public void updateDevices(DeviceRegistry devices, List<DeviceConfiguration> configurations) {
+
+		// decode straight from the raw message into the reused buffer
+		String raw = getRaw();
+		ByteBuffer buffer = Utils.decodeBase64(raw, 2, raw.length(), BUFFERS.get());
+		BUFFERS.set(buffer);
+
+		int limit = buffer.limit();
+		int offset = 0;
+		while (offset < limit) {
+			// each record starts with its length, which does not include itself
+			int length = buffer.get(offset) & 0xFF;
+			int start = offset + 1;
+			offset = start + length;
+			if (offset > limit) {
+				logger.debug("L_Message malformed: record of {} bytes exceeds the message.", length);
+				break;
+			}
+			if (length < 3) {
+				continue;
+			}
 
-		while (tokenizer.hasMoreElements()) {
-			byte[] token = tokenizer.nextElement();
-			String rfAddress = Utils.toHex(token[0] & 0xFF, token[1] & 0xFF, token[2] & 0xFF);
-			//logger.debug("token: "+token+" rfaddress: "+rfAddress);
-			
-			Device foundDevice = null;
-			for (Device device : devices) {
-				//logger.debug(device.getRFAddress().toUpperCase()+ " vs "+rfAddress);
-				if (device.getRFAddress().toUpperCase().equals(rfAddress)) {
-					//logger.debug("Updating device..."+rfAddress);
-					foundDevice = device;
+			Device foundDevice = devices.getByRFAddress(DeviceRegistry.toRFAddress(buffer, start));
+			if (foundDevice != null) {
+				Device.update(buffer, start, length, configurations, foundDevice);
+			} else {
+				byte[] token = new byte[length];
+				for (int i = 0; i < length; i++) {
+					token[i] = buffer.get(start + i);
 				}
-			}
-			if(foundDevice!= null) {
-				foundDevice = Device.update(token, configurations, foundDevice);
-				//devices.remove(token);
-				//devices.add(foundDevice);
-			}else{
 				Device tempDevice = Device.create(token, configurations);
 				if (tempDevice != null) {
 					devices.add(tempDevice);
 				}
 			}
 		}
-
-		return devices;
 	}
-	
+
 	@Override
 	public void debug(Logger logger) {
 		logger.trace("=== L_Message === ");
@@ -10,7 +10,6 @@ package org.openhab.binding.max.internal.message;
 
 import java.util.ArrayList;
 
-import org.apache.commons.net.util.Base64;
 import org.openhab.binding.max.MaxBinding;
 import org.openhab.binding.max.internal.Utils;
 import org.slf4j.Logger;
@@ -35,10 +34,13 @@ public final class M_Message extends Message {
 		super(raw);
 		hasConfiguration = false;
 
-		String[] tokens = this.getPayload().split(Message.DELIMETER);
+		// M:index,count,data
+		int countStart = raw.indexOf(Message.DELIMETER) + 1;
+		int dataStart = countStart > 0 ? raw.indexOf(Message.DELIMETER, countStart) + 1 : 0;
+		int dataEnd = dataStart > 0 ? raw.indexOf(Message.DELIMETER, dataStart) : -1;
 
-		if (tokens.length > 1) try {
-			byte[] bytes = Base64.decodeBase64(tokens[2].getBytes());
+		if (dataStart > 0) try {
+			byte[] bytes = Utils.decodeBase64(raw, dataStart, dataEnd < 0 ? raw.length() : dataEnd);
 			
 			hasConfiguration = true;
 			logger.trace("*** M_Message trace**** ");
@@ -30,6 +30,14 @@ public abstract class Message {
 
 	public abstract MessageType getType();
 
+	/**
+	 * Returns the raw message, including the message type and the colon
+	 * preceding the payload.
+	 */
+	protected final String getRaw() {
+		return raw;
+	}
+
 	protected final String getPayload() {
 		return raw.substring(2, raw.length());
 	}
@@ -8,8 +8,8 @@
  */
 package org.openhab.binding.max.internal.message;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.openhab.binding.max.internal.exceptions.IncompleteMessageException;
 import org.openhab.binding.max.internal.exceptions.IncorrectMultilineIndexException;
@@ -38,6 +38,12 @@ public class MessageProcessor {
     
     public static final String SEPARATOR = ":";
 
+    /** The initial capacity of the buffer for multi-line messages */
+    private static final int INITIAL_CAPACITY = 2048;
+
+    /** The largest value of a header field before its last digit is parsed */
+    private static final int MAX_NUMBER = 9999;
+
     /**
      * The message that was created from last line received. (Null if no message
      * available yet)
@@ -48,12 +54,15 @@ public class MessageProcessor {
      * <pre>
      * If more that one single line is required to create a message
      * 	  	numberOfRequiredLines holds the number of required messages to complete
-     * 		receivedLines holds the lines received so far
+     * 		receivedLines holds the number of lines received so far
+     * 		multilineData holds the characters of the message received so far
      * 		currentMessageType indicates which message type is currently on stack
      * </pre>
      */
-    private Integer numberOfRequiredLines = null;
-    private List<String> receivedLines = new ArrayList<String>();
+    private int numberOfRequiredLines = 0;
+    private int receivedLines = 0;
+    private byte[] multilineData = new byte[INITIAL_CAPACITY];
+    private int multilineLength = 0;
     private MessageType currentMessageType = null;
 
     /**
@@ -62,9 +71,10 @@ public class MessageProcessor {
      */
     public void reset() {
         this.currentMessage = null;
-        receivedLines.clear();
+        receivedLines = 0;
+        multilineLength = 0;
         currentMessageType = null;
-        numberOfRequiredLines = null;
+        numberOfRequiredLines = 0;
     }
 
     /**
@@ -132,57 +142,95 @@ public class MessageProcessor {
         return result;
     }
 
-    private Boolean handle_M_MessageLine(String line) throws UnprocessableMessageException, IncompleteMessageException,
+    /**
+     * Handles a line of an M message, M:index,count,data. The header fields
+     * are parsed in place, and the data of a multi-line message is collected
+     * in a buffer that is kept for the next message.
+     */
+    private Boolean handle_M_MessageLine(String line) throws UnprocessableMessageException,
             IncorrectMultilineIndexException {
         Boolean result = false;
 
-        String[] tokens = line.split(Message.DELIMETER); // M:00,01,xyz.....
-
-        try {
-            Integer index = Integer.valueOf(tokens[0].replaceFirst("M:", "")); // M:00
-            Integer counter = Integer.valueOf(tokens[1]); // 01
-
-            if (this.numberOfRequiredLines == null) {
-                switch (counter) {
-                    case 0:
-                        throw new UnprocessableMessageException();
-                    case 1:
-                        this.currentMessage = new M_Message(line);
-                        result = true;
-                        break;
-                    default:
-                        this.numberOfRequiredLines = counter;
-                        this.currentMessageType = MessageType.M;
-                        if (index == 0) {
-                            this.receivedLines.add(line);
-                        } else {
-                            throw new IncorrectMultilineIndexException();
-                        }
-                }
-            } else {
-                if ((!counter.equals(this.numberOfRequiredLines)) || (!(index == this.receivedLines.size()))) {
-                    throw new IncorrectMultilineIndexException();
-                }
-
-                receivedLines.add(tokens[2]);
-
-                if (index + 1 == receivedLines.size()) {
-                    String newLine = "";
-                    for (String curLine : receivedLines)
-                        newLine += curLine;
-                    this.currentMessage = new M_Message(newLine);
+        int indexEnd = line.indexOf(Message.DELIMETER, 2);
+        if (indexEnd < 0) {
+            throw new UnprocessableMessageException();
+        }
+        int counterEnd = line.indexOf(Message.DELIMETER, indexEnd + 1);
+        int dataStart = counterEnd < 0 ? line.length() : counterEnd + 1;
+        if (counterEnd < 0) {
+            counterEnd = line.length();
+        }
+
+        int index = parseNumber(line, 2, indexEnd); // M:00
+        int counter = parseNumber(line, indexEnd + 1, counterEnd); // 01
+
+        if (this.numberOfRequiredLines == 0) {
+            switch (counter) {
+                case 0:
+                    throw new UnprocessableMessageException();
+                case 1:
+                    this.currentMessage = new M_Message(line);
                     result = true;
-                }
+                    break;
+                default:
+                    if (index != 0) {
+                        throw new IncorrectMultilineIndexException();
+                    }
+                    this.numberOfRequiredLines = counter;
+                    this.currentMessageType = MessageType.M;
+                    append(line, 0);
+                    this.receivedLines = 1;
+            }
+        } else {
+            if ((counter != this.numberOfRequiredLines) || (index != this.receivedLines)) {
+                throw new IncorrectMultilineIndexException();
+            }
+
+            append(line, dataStart);
+            this.receivedLines++;
+
+            if (this.receivedLines == this.numberOfRequiredLines) {
+                this.currentMessage = new M_Message(new String(multilineData, 0, multilineLength,
+                        StandardCharsets.ISO_8859_1));
+                result = true;
             }
-        } catch (IncorrectMultilineIndexException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            throw new UnprocessableMessageException();
         }
 
         return result;
     }
-    
+
+    /**
+     * Appends the characters of a line from the given index to the buffer of
+     * the multi-line message, growing the buffer as needed.
+     */
+    private void append(String line, int start) {
+        int required = multilineLength + line.length() - start;
+        if (required > multilineData.length) {
+            multilineData = Arrays.copyOf(multilineData, Math.max(required, multilineData.length * 2));
+        }
+        for (int i = start; i < line.length(); i++) {
+            multilineData[multilineLength++] = (byte) line.charAt(i);
+        }
+    }
+
+    /**
+     * Parses the non-negative decimal number between the given indexes.
+     */
+    private static int parseNumber(String line, int start, int end) throws UnprocessableMessageException {
+        if (start >= end) {
+            throw new UnprocessableMessageException();
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > MAX_NUMBER) {
+                throw new UnprocessableMessageException();
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
     /**
      * @return true if there is a message waiting to be pulled
      */
@@ -223,12 +271,23 @@ public class MessageProcessor {
      */
     private static MessageType getMessageType(String line) {
 
-        for (MessageType msgType : MessageType.values()) {
-            if (line.startsWith(msgType.name() + SEPARATOR)) {
-                return msgType;
-            }
+        if (line.length() < 2 || line.charAt(1) != SEPARATOR.charAt(0)) {
+            return null;
         }
 
-        return null;
+        switch (line.charAt(0)) {
+            case 'H':
+                return MessageType.H;
+            case 'M':
+                return MessageType.M;
+            case 'C':
+                return MessageType.C;
+            case 'L':
+                return MessageType.L;
+            case 'S':
+                return MessageType.S;
+            default:
+                return null;
+        }
     }
 }
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.max.internal.message;
 
+import java.util.Arrays;
+
 import org.apache.commons.net.util.Base64;
 import org.openhab.binding.max.internal.Utils;
 
@@ -74,6 +76,20 @@ public class S_Command {
 		}
 	}
 
+	/**
+	 * Returns whether the given command sets the same mode and temperature in
+	 * the same room. The command is sent with the group flag, so the devices
+	 * of the room pass it on to each other and only one of the commands needs
+	 * to be sent.
+	 * 
+	 * @param other
+	 *            the other command
+	 * @return true if sending this command has the effect of the other
+	 */
+	public boolean isSameRoomCommand(S_Command other) {
+		return roomId > 0 && roomId == other.roomId && Arrays.equals(bits, other.bits);
+	}
+
 	/**
 	 * Returns the Base64 encoded command string to be sent via the MAX!
 	 * protocol.
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.max.internal.message;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of the commands to be sent to a MAX! Cube. A command replaces any
+ * pending command with the same key, i.e. for the same device and channel,
+ * keeping its place in the queue, so that only the latest value of a slider
+ * is sent.
+ *
+ * The queue also decides how many commands may be sent at once. The Cube may
+ * only use the radio for 1% of the time, its duty cycle reports how much of
+ * that allowance is used up. Commands the Cube cannot send right away take a
+ * memory slot. While both are plentiful commands are sent in bursts, otherwise
+ * they are spaced out, so that the Cube does not discard them.
+ *
+ * @author agent - Initial contribution
+ */
+public final class SendCommandQueue {
+
+	private final static Logger logger = LoggerFactory.getLogger(SendCommandQueue.class);
+
+	/** The duty cycle above which commands are spaced out */
+	public static final int HIGH_DUTY_CYCLE = 80;
+
+	/** The free memory slots below which commands are spaced out */
+	public static final int LOW_FREE_MEMORY_SLOTS = 3;
+
+	/** The maximum number of commands sent at once */
+	public static final int MAX_BURST = 10;
+
+	/** The interval between commands while they are spaced out */
+	public static final long SLOW_INTERVAL = 5000;
+
+	private final int capacity;
+
+	private final Map<String, QueuedCommand> commands = new LinkedHashMap<String, QueuedCommand>();
+
+	private long lastSendTime = 0;
+
+	private long queuedCommands = 0;
+	private long coalescedCommands = 0;
+	private long roomCoalescedCommands = 0;
+	private long droppedCommands = 0;
+	private long sentCommands = 0;
+	private long totalLatency = 0;
+	private long maxLatency = 0;
+
+	/**
+	 * @param capacity
+	 *            the maximum number of pending commands
+	 */
+	public SendCommandQueue(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Queues a command, replacing the pending command for the same device and
+	 * channel.
+	 *
+	 * @param sendCommand
+	 *            the command
+	 * @return false if the queue is full
+	 */
+	public synchronized boolean offer(SendCommand sendCommand) {
+		QueuedCommand queued = commands.get(sendCommand.getKey());
+		if (queued != null) {
+			// keep the place and the waiting time of the replaced command
+			logger.debug("Removed Command id {} ({}) from queue. Superceeded by {}", queued.command.getId(),
+					queued.command.getKey(), sendCommand.getId());
+			queued.command = sendCommand;
+			coalescedCommands++;
+			return true;
+		}
+		if (commands.size() >= capacity) {
+			droppedCommands++;
+			return false;
+		}
+		commands.put(sendCommand.getKey(), new QueuedCommand(sendCommand, System.currentTimeMillis()));
+		queuedCommands++;
+		return true;
+	}
+
+	/**
+	 * Returns the oldest command, to be sent. The command stays in the queue,
+	 * keeping its place and its waiting time, until it is confirmed as sent
+	 * or removed, so that a command the Cube did not receive is sent again.
+	 *
+	 * @return the command, or <code>null</code> if the queue is empty
+	 */
+	public synchronized SendCommand peek() {
+		Iterator<QueuedCommand> iterator = commands.values().iterator();
+		return iterator.hasNext() ? iterator.next().command : null;
+	}
+
+	/**
+	 * Removes a command the Cube received. If the command was replaced while
+	 * it was sent, the replacement stays queued.
+	 *
+	 * @param sendCommand
+	 *            the command returned by {@link #peek()}
+	 */
+	public synchronized void sent(SendCommand sendCommand) {
+		QueuedCommand queued = remove(sendCommand);
+		long now = System.currentTimeMillis();
+		lastSendTime = now;
+		if (queued != null) {
+			long latency = now - queued.queuedTime;
+			sentCommands++;
+			totalLatency += latency;
+			maxLatency = Math.max(maxLatency, latency);
+		}
+	}
+
+	/**
+	 * Removes a command that needs not be sent, as a command sent before set
+	 * the same mode and temperature for its room.
+	 *
+	 * @param sendCommand
+	 *            the command returned by {@link #peek()}
+	 */
+	public synchronized void skipped(SendCommand sendCommand) {
+		if (remove(sendCommand) != null) {
+			roomCoalescedCommands++;
+		}
+	}
+
+	/**
+	 * Removes a command that cannot be sent.
+	 *
+	 * @param sendCommand
+	 *            the command returned by {@link #peek()}
+	 */
+	public synchronized void discard(SendCommand sendCommand) {
+		if (remove(sendCommand) != null) {
+			droppedCommands++;
+		}
+	}
+
+	private QueuedCommand remove(SendCommand sendCommand) {
+		QueuedCommand queued = commands.get(sendCommand.getKey());
+		if (queued == null || queued.command != sendCommand) {
+			// replaced by a newer command, which is still to be sent
+			return null;
+		}
+		commands.remove(sendCommand.getKey());
+		return queued;
+	}
+
+	/**
+	 * Returns the number of commands that may be sent now.
+	 *
+	 * @param dutyCycle
+	 *            the duty cycle last reported by the Cube
+	 * @param freeMemorySlots
+	 *            the free memory slots last reported by the Cube
+	 * @return the number of commands
+	 */
+	public synchronized int getSendBudget(int dutyCycle, int freeMemorySlots) {
+		if (dutyCycle >= 100 || freeMemorySlots <= 0) {
+			// the Cube would discard the command
+			return 0;
+		}
+		if (dutyCycle >= HIGH_DUTY_CYCLE || freeMemorySlots < LOW_FREE_MEMORY_SLOTS) {
+			return System.currentTimeMillis() - lastSendTime >= SLOW_INTERVAL ? 1 : 0;
+		}
+		return Math.min(MAX_BURST, freeMemorySlots - LOW_FREE_MEMORY_SLOTS + 1);
+	}
+
+	/**
+	 * @return the number of pending commands
+	 */
+	public synchronized int size() {
+		return commands.size();
+	}
+
+	/**
+	 * @return the number of commands queued, not counting replacements
+	 */
+	public synchronized long getQueuedCommands() {
+		return queuedCommands;
+	}
+
+	/**
+	 * @return the number of commands that replaced a pending command
+	 */
+	public synchronized long getCoalescedCommands() {
+		return coalescedCommands;
+	}
+
+	/**
+	 * @return the number of commands not sent, as a command sent before set
+	 *         the same mode and temperature for their room
+	 */
+	public synchronized long getRoomCoalescedCommands() {
+		return roomCoalescedCommands;
+	}
+
+	/**
+	 * @return the number of commands dropped as the queue was full or they
+	 *         could not be sent
+	 */
+	public synchronized long getDroppedCommands() {
+		return droppedCommands;
+	}
+
+	/**
+	 * @return the number of commands the Cube received
+	 */
+	public synchronized long getSentCommands() {
+		return sentCommands;
+	}
+
+	/**
+	 * @return the average time in ms the commands the Cube received waited in
+	 *         the queue
+	 */
+	public synchronized long getAverageLatency() {
+		return sentCommands == 0 ? 0 : totalLatency / sentCommands;
+	}
+
+	/**
+	 * @return the longest time in ms a command the Cube received waited in
+	 *         the queue
+	 */
+	public synchronized long getMaxLatency() {
+		return maxLatency;
+	}
+
+	private static final class QueuedCommand {
+
+		private SendCommand command;
+		private final long queuedTime;
+
+		QueuedCommand(SendCommand command, long queuedTime) {
+			this.command = command;
+			this.queuedTime = queuedTime;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.junit.Assert.*;
+
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Test;
+import org.openhab.binding.sonos.SonosBindingConstants;
+
+/**
+ * Tests cases for {@link ChannelStateCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ChannelStateCacheTest {
+
+	@Test
+	public void channelUIDTest() {
+		ThingUID thingUID = new ThingUID("sonos:PLAY5:RINCON_000E58000000001400");
+		ChannelStateCache cache = new ChannelStateCache(thingUID);
+
+		ChannelUID channelUID = cache.getChannelUID(SonosBindingConstants.VOLUME);
+		assertEquals(new ChannelUID(thingUID, SonosBindingConstants.VOLUME), channelUID);
+		assertSame(channelUID, cache.getChannelUID(SonosBindingConstants.VOLUME));
+	}
+
+	@Test
+	public void percentTypeTest() {
+		assertSame(ChannelStateCache.getPercentType("0"), ChannelStateCache.getPercentType("0"));
+		assertSame(ChannelStateCache.getPercentType("100"), ChannelStateCache.getPercentType("100"));
+		assertEquals(new PercentType("25"), ChannelStateCache.getPercentType("25"));
+		assertEquals(new PercentType("25.5"), ChannelStateCache.getPercentType("25.5"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void percentTypeOutOfRangeTest() {
+		ChannelStateCache.getPercentType("101");
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void percentTypeBadInputTest() {
+		ChannelStateCache.getPercentType("loud");
+	}
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link SonosEntryBrowser}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosEntryBrowserTest {
+
+	private static final int TOTAL_MATCHES = 6;
+	private static final int PAGE = 2;
+
+	private int pagesBrowsed = 0;
+
+	/**
+	 * Returns the tracks of a library in pages of two, without a background
+	 * executor, so that the pages requested can be counted.
+	 */
+	private SonosEntryBrowser createBrowser() {
+		return new SonosEntryBrowser(null) {
+			@Override
+			protected Map<String, String> browse(long startingIndex, int requestedCount) {
+				pagesBrowsed++;
+				StringBuilder didl = new StringBuilder("<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\""
+						+ " xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\""
+						+ " xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\">");
+				for (long i = startingIndex; i < startingIndex + PAGE; i++) {
+					didl.append("<item id=\"S://track").append(i).append("\" parentID=\"A:TRACKS\">")
+							.append("<dc:title>Track ").append(i).append("</dc:title></item>");
+				}
+				didl.append("</DIDL-Lite>");
+
+				Map<String, String> result = new HashMap<String, String>();
+				result.put("Result", didl.toString());
+				result.put("NumberReturned", Integer.toString(PAGE));
+				result.put("TotalMatches", Integer.toString(TOTAL_MATCHES));
+				return result;
+			}
+		};
+	}
+
+	@Test
+	public void browseAllTest() {
+		SonosEntryBrowser browser = createBrowser();
+		int count = 0;
+		while (browser.hasNext()) {
+			assertEquals("Track " + count, browser.next().getTitle());
+			count++;
+		}
+
+		assertEquals(TOTAL_MATCHES, count);
+		assertEquals(TOTAL_MATCHES / PAGE, pagesBrowsed);
+	}
+
+	@Test
+	public void findStopsEarlyTest() {
+		SonosEntry entry = createBrowser().findByTitle("Track 3");
+
+		assertEquals("S://track3", entry.getId());
+		// the last page is never requested
+		assertEquals(2, pagesBrowsed);
+	}
+
+	@Test
+	public void findMissingTest() {
+		assertNull(createBrowser().findByTitle("Track 9"));
+		assertEquals(TOTAL_MATCHES / PAGE, pagesBrowsed);
+	}
+
+	@Test
+	public void closeTest() {
+		SonosEntryBrowser browser = createBrowser();
+		assertTrue(browser.hasNext());
+		browser.close();
+
+		assertFalse(browser.hasNext());
+		assertEquals(1, pagesBrowsed);
+	}
+}
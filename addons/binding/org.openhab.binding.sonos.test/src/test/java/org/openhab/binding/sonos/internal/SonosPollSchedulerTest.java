@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link SonosPollScheduler}, on a virtual clock.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosPollSchedulerTest {
+
+	private static final int REFRESH_INTERVAL = 10;
+	private static final int SUBSCRIPTION_DURATION = 30;
+
+	private long now = 1000000;
+
+	private final CountingPoll volumePoll = new CountingPoll();
+	private final CountingPoll transportPoll = new CountingPoll();
+
+	private SonosPollScheduler scheduler;
+
+	@Before
+	public void before() {
+		scheduler = new SonosPollScheduler(REFRESH_INTERVAL, SUBSCRIPTION_DURATION) {
+			@Override
+			protected long currentTimeMillis() {
+				return now;
+			}
+		};
+		scheduler.addPoll("RenderingControl", volumePoll, "Volume");
+		scheduler.addPoll("AVTransport", transportPoll, "TransportState", "CurrentPlayMode");
+	}
+
+	@Test
+	public void pollsUnknownVariablesTest() {
+		scheduler.run();
+
+		assertEquals(1, volumePoll.count);
+		assertEquals(1, transportPoll.count);
+		assertEquals(2, scheduler.getPollsIssued());
+		assertEquals(0, scheduler.getPollsSkipped());
+	}
+
+	@Test
+	public void skipsFreshVariablesTest() {
+		scheduler.received("RenderingControl", "Volume", false);
+		// one fresh variable is enough
+		scheduler.received("AVTransport", "CurrentPlayMode", false);
+
+		now += 5000;
+		scheduler.run();
+		assertEquals(0, volumePoll.count);
+		assertEquals(0, transportPoll.count);
+		assertEquals(2, scheduler.getPollsSkipped());
+
+		// stale once the refresh interval, less the jitter, passed
+		now += 4000;
+		scheduler.run();
+		assertEquals(1, volumePoll.count);
+		assertEquals(1, transportPoll.count);
+		assertEquals(2, scheduler.getPollsIssued());
+		assertEquals(2, scheduler.getPollsSkipped());
+	}
+
+	@Test
+	public void repliesDoNotStretchTheIntervalTest() {
+		scheduler.received("RenderingControl", "Volume", false);
+
+		now += REFRESH_INTERVAL * 1000;
+		scheduler.run();
+		assertEquals(1, volumePoll.count);
+	}
+
+	@Test
+	public void eventsStretchTheIntervalTest() {
+		scheduler.received("RenderingControl", "Volume", true);
+
+		// the healthy interval is capped by the subscription duration
+		now += 28000;
+		scheduler.run();
+		assertEquals(0, volumePoll.count);
+		// the events of one service do not stretch the polls of another
+		assertEquals(1, transportPoll.count);
+
+		now += 1000;
+		scheduler.run();
+		assertEquals(1, volumePoll.count);
+	}
+
+	@Test
+	public void subscriptionExpiresTest() {
+		scheduler.received("RenderingControl", "Volume", true);
+
+		// no event for the duration of the subscription, the poll refreshes
+		// the variable but does not show the subscription is alive
+		now += SUBSCRIPTION_DURATION * 1000;
+		scheduler.received("RenderingControl", "Volume", false);
+
+		now += REFRESH_INTERVAL * 1000;
+		scheduler.run();
+		assertEquals(1, volumePoll.count);
+	}
+
+	private static class CountingPoll implements Runnable {
+
+		private int count = 0;
+
+		@Override
+		public void run() {
+			count++;
+		}
+	}
+}
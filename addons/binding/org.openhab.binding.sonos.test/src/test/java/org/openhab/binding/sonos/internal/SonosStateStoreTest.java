@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.binding.sonos.internal.SonosStateStore.Variable;
+
+/**
+ * Tests cases for {@link SonosStateStore}.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosStateStoreTest {
+
+	private final SonosStateStore store = new SonosStateStore();
+
+	@Test
+	public void knownVariableTest() {
+		assertSame(Variable.TransportState, Variable.lookup("TransportState"));
+
+		assertNull(store.put("TransportState", "PLAYING"));
+		// the name and the slot address the same value
+		assertEquals("PLAYING", store.get(Variable.TransportState));
+		assertEquals("PLAYING", store.get("TransportState"));
+
+		assertEquals("PLAYING", store.put(Variable.TransportState, "STOPPED"));
+		assertEquals("STOPPED", store.get("TransportState"));
+
+		assertEquals("STOPPED", store.put("TransportState", null));
+		assertNull(store.get(Variable.TransportState));
+	}
+
+	@Test
+	public void otherVariableTest() {
+		assertNull(Variable.lookup("NextTrackURI"));
+
+		assertNull(store.put("NextTrackURI", "x-file-cifs://server/a.mp3"));
+		assertEquals("x-file-cifs://server/a.mp3", store.get("NextTrackURI"));
+		assertEquals("x-file-cifs://server/a.mp3", store.put("NextTrackURI", "x-file-cifs://server/b.mp3"));
+
+		// null removes the variable
+		assertEquals("x-file-cifs://server/b.mp3", store.put("NextTrackURI", null));
+		assertNull(store.get("NextTrackURI"));
+		assertNull(store.put("NextTrackURI", null));
+	}
+
+	@Test
+	public void separateVariablesTest() {
+		store.put(Variable.VolumeMaster, "25");
+		store.put("NextTrackURI", "25");
+
+		assertNull(store.get(Variable.MuteMaster));
+		assertNull(store.get("Volume"));
+		assertEquals("25", store.put(Variable.VolumeMaster, "30"));
+		assertEquals("25", store.get("NextTrackURI"));
+	}
+}
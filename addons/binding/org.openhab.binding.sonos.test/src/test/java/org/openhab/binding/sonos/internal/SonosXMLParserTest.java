@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link SonosXMLParser}. The parser reuses a reader and a
+ * handler per thread, so each test parses two payloads in a row on the same
+ * thread and checks that nothing of the first shows up in the second.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosXMLParserTest {
+
+	private static final String DIDL = "<DIDL-Lite xmlns:dc=\"http://purl.org/dc/elements/1.1/\""
+			+ " xmlns:upnp=\"urn:schemas-upnp-org:metadata-1-0/upnp/\""
+			+ " xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\""
+			+ " xmlns=\"urn:schemas-upnp-org:metadata-1-0/DIDL-Lite/\">";
+
+	@Test
+	public void avTransportTest() {
+		Map<String, String> first = SonosXMLParser.getAVTransportFromXML("<Event"
+				+ " xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\""
+				+ " xmlns:r=\"urn:schemas-rinconnetworks-com:metadata-1-0/\"><InstanceID val=\"0\">"
+				+ "<TransportState val=\"PLAYING\"/><CurrentPlayMode val=\"NORMAL\"/>"
+				+ "<CurrentTrackURI val=\"x-file-cifs://server/a.mp3\"/><r:AlarmRunning val=\"0\"/>"
+				+ "</InstanceID></Event>");
+		Map<String, String> second = SonosXMLParser.getAVTransportFromXML("<Event"
+				+ " xmlns=\"urn:schemas-upnp-org:metadata-1-0/AVT/\"><InstanceID val=\"0\">"
+				+ "<TransportState val=\"STOPPED\"/></InstanceID></Event>");
+
+		assertEquals("PLAYING", first.get("TransportState"));
+		assertEquals("NORMAL", first.get("CurrentPlayMode"));
+		assertEquals("x-file-cifs://server/a.mp3", first.get("CurrentTrackURI"));
+		assertEquals("0", first.get("AlarmRunning"));
+
+		// the instance id is reported as a variable too
+		assertEquals(2, second.size());
+		assertEquals("STOPPED", second.get("TransportState"));
+
+		// the map handed out before is not touched by the second parse
+		assertEquals("PLAYING", first.get("TransportState"));
+		assertEquals(5, first.size());
+	}
+
+	@Test
+	public void renderingControlTest() {
+		Map<String, String> first = SonosXMLParser.getRenderingControlFromXML("<Event"
+				+ " xmlns=\"urn:schemas-upnp-org:metadata-1-0/RCS/\"><InstanceID val=\"0\">"
+				+ "<Volume channel=\"Master\" val=\"25\"/><Mute channel=\"Master\" val=\"0\"/>"
+				+ "<PresetNameList>FactoryDefaults</PresetNameList></InstanceID></Event>");
+		Map<String, String> second = SonosXMLParser.getRenderingControlFromXML("<Event"
+				+ " xmlns=\"urn:schemas-upnp-org:metadata-1-0/RCS/\"><InstanceID val=\"0\">"
+				+ "<Bass val=\"2\"/></InstanceID></Event>");
+
+		assertEquals("25", first.get("VolumeMaster"));
+		assertEquals("0", first.get("MuteMaster"));
+		assertEquals("FactoryDefaults", first.get("PresetNameList"));
+
+		assertEquals(1, second.size());
+		assertEquals("2", second.get("Bass"));
+	}
+
+	@Test
+	public void metaDataTest() {
+		SonosMetaData first = SonosXMLParser.getMetaDataFromXML(DIDL
+				+ "<item id=\"-1\" parentID=\"-1\" restricted=\"true\">"
+				+ "<res protocolInfo=\"x-file-cifs:*:audio/mpeg:*\">x-file-cifs://server/a.mp3</res>"
+				+ "<dc:title>Broken Box</dc:title><upnp:class>object.item.audioItem.musicTrack</upnp:class>"
+				+ "<dc:creator>Queens Of The Stone Age</dc:creator><upnp:album>Lullabies To Paralyze</upnp:album>"
+				+ "<r:albumArtist>Queens Of The Stone Age</r:albumArtist></item></DIDL-Lite>");
+		SonosMetaData second = SonosXMLParser.getMetaDataFromXML(DIDL
+				+ "<item id=\"R:0/0/0\" parentID=\"R:0/0\" restricted=\"true\">"
+				+ "<dc:title>Radio</dc:title><upnp:class>object.item.audioItem.audioBroadcast</upnp:class>"
+				+ "</item></DIDL-Lite>");
+
+		assertEquals("Broken Box", first.getTitle());
+		assertEquals("Lullabies To Paralyze", first.getAlbum());
+		assertEquals("Queens Of The Stone Age", first.getAlbumArtist());
+		assertEquals("x-file-cifs://server/a.mp3", first.getResource());
+
+		assertEquals("R:0/0/0", second.getId());
+		assertEquals("R:0/0", second.getParentId());
+		assertEquals("Radio", second.getTitle());
+		assertEquals("object.item.audioItem.audioBroadcast", second.getUpnpClass());
+		assertEquals("", second.getAlbum());
+		assertEquals("", second.getAlbumArtist());
+		assertEquals("", second.getCreator());
+		assertEquals("", second.getResource());
+	}
+
+	@Test
+	public void entriesTest() {
+		List<SonosEntry> first = SonosXMLParser.getEntriesFromString(DIDL
+				+ "<container id=\"SQ:1\" parentID=\"SQ:\"><dc:title>Morning</dc:title>"
+				+ "<upnp:class>object.container.playlistContainer</upnp:class></container>"
+				+ "<container id=\"SQ:2\" parentID=\"SQ:\"><dc:title>Evening</dc:title>"
+				+ "<dc:creator>Someone</dc:creator></container></DIDL-Lite>");
+		List<SonosEntry> second = SonosXMLParser.getEntriesFromString(DIDL
+				+ "<item id=\"R:0/0/0\" parentID=\"R:0/0\"><dc:title>Radio</dc:title></item></DIDL-Lite>");
+
+		assertEquals(2, first.size());
+		assertEquals("Morning", first.get(0).getTitle());
+		assertEquals("Evening", first.get(1).getTitle());
+
+		assertEquals(1, second.size());
+		assertEquals("R:0/0/0", second.get(0).getId());
+		assertEquals("Radio", second.get(0).getTitle());
+		assertEquals("", second.get(0).getCreator());
+		assertEquals("", second.get(0).getUpnpClass());
+
+		// the list handed out before is not touched by the second parse
+		assertEquals(2, first.size());
+	}
+
+	@Test
+	public void malformedPayloadTest() {
+		SonosXMLParser.getAVTransportFromXML("<Event><InstanceID val=\"0\"><TransportState val=\"PLAYING\"/>");
+		Map<String, String> changes = SonosXMLParser.getAVTransportFromXML("<Event><InstanceID val=\"0\">"
+				+ "<CurrentPlayMode val=\"SHUFFLE\"/></InstanceID></Event>");
+
+		// the reader recovered, and the half parsed payload did not leak
+		assertEquals("SHUFFLE", changes.get("CurrentPlayMode"));
+		assertNull(changes.get("TransportState"));
+	}
+}
@@ -16,13 +16,13 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -54,11 +54,19 @@ import org.eclipse.smarthome.core.types.UnDefType;
 import org.eclipse.smarthome.io.net.http.HttpUtil;
 import org.eclipse.smarthome.io.transport.upnp.UpnpIOParticipant;
 import org.eclipse.smarthome.io.transport.upnp.UpnpIOService;
+import org.openhab.binding.sonos.internal.ChannelStateCache;
 import org.openhab.binding.sonos.internal.SonosAlarm;
 import org.openhab.binding.sonos.internal.SonosEntry;
+import org.openhab.binding.sonos.internal.SonosEntryBrowser;
+import org.openhab.binding.sonos.internal.SonosEntryIndex;
 import org.openhab.binding.sonos.internal.SonosMetaData;
+import org.openhab.binding.sonos.internal.SonosOpmlCache;
+import org.openhab.binding.sonos.internal.SonosPollScheduler;
+import org.openhab.binding.sonos.internal.SonosStateStore;
+import org.openhab.binding.sonos.internal.SonosStateStore.Variable;
 import org.openhab.binding.sonos.internal.SonosXMLParser;
 import org.openhab.binding.sonos.internal.SonosZoneGroup;
+import org.openhab.binding.sonos.internal.SonosZoneGroupTopology;
 import org.openhab.binding.sonos.internal.SonosZonePlayerState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -81,13 +89,12 @@ UpnpIOParticipant, DiscoveryListener {
 	private UpnpIOService service;
 	private DiscoveryServiceRegistry discoveryServiceRegistry;
 	private ScheduledFuture<?> pollingJob;
-	private Calendar lastOPMLQuery = null;
-	private SonosZonePlayerState savedState = null;
+	private volatile SonosZonePlayerState savedState = null;
 
 	private final static Collection<String> SERVICE_SUBSCRIPTIONS = Lists
 			.newArrayList("DeviceProperties", "AVTransport",
 					"ZoneGroupTopology", "GroupManagement", "RenderingControl",
-					"AudioIn");
+					"AudioIn", "ContentDirectory");
 	protected final static int SUBSCRIPTION_DURATION = 600;
 	private static final int SOCKET_TIMEOUT = 5000;
 
@@ -96,18 +103,31 @@ UpnpIOParticipant, DiscoveryListener {
 	 */
 	private static final int DEFAULT_REFRESH_INTERVAL = 60;
 
-	private Map<String, String> stateMap = Collections
-			.synchronizedMap(new HashMap<String, String>());
+	// saves and restores all the Zone Players, whichever of them is asked to
+	private static final ZonePlayerSnapshotEngine snapshotEngine = new ZonePlayerSnapshotEngine();
+
+	private SonosStateStore stateMap = new SonosStateStore();
+
+	// guards the saved state, which is saved and restored by other threads
+	private final Object savedStateLock = new Object();
+
+	// guards the set up of the subscriptions and of the polling job
+	private final Object subscriptionLock = new Object();
+
+	private final ChannelStateCache channelStateCache;
+
+	private SonosPollScheduler pollScheduler;
+
+	// set while the reply to a SOAP call is processed, in order to tell
+	// replies from GENA events
+	private static final ThreadLocal<Boolean> replying = new ThreadLocal<Boolean>();
 
 	private Runnable pollingRunnable = new Runnable() {
 
 		@Override
 		public void run() {
 			try {
-				updateZoneInfo();
-				updateRunningAlarmProperties();
-				updateLed();
-				updateMediaInfo();
+				pollScheduler.run();
 			} catch (Exception e) {
 				logger.debug("Exception during poll : {}", e);
 			}
@@ -116,10 +136,22 @@ UpnpIOParticipant, DiscoveryListener {
 
 	private String opmlPartnerID;
 
+	private SonosZoneGroupTopology topology;
+
+	private SonosEntryIndex entryIndex;
+
+	private SonosOpmlCache opmlCache;
+
 	public ZonePlayerHandler(Thing thing, UpnpIOService upnpIOService,
-			DiscoveryServiceRegistry discoveryServiceRegistry, String opmlPartnerID) {
+			DiscoveryServiceRegistry discoveryServiceRegistry, String opmlPartnerID,
+			SonosZoneGroupTopology topology, SonosEntryIndex entryIndex,
+			SonosOpmlCache opmlCache) {
 		super(thing);
+		this.channelStateCache = new ChannelStateCache(thing.getUID());
 		this.opmlPartnerID = opmlPartnerID;
+		this.topology = topology;
+		this.entryIndex = entryIndex;
+		this.opmlCache = opmlCache;
 
 		logger.debug("Creating a ZonePlayerHandler for thing '{}'", getThing()
 				.getUID());
@@ -269,25 +301,40 @@ UpnpIOParticipant, DiscoveryListener {
 	}
 
 	private void restoreAllPlayerState() {
-		Collection<Thing> allThings = thingRegistry.getAll();
-		for (Thing aThing : allThings) {
-			if (aThing.getThingTypeUID().equals(
-					this.getThing().getThingTypeUID())) {
-				ZonePlayerHandler handler = (ZonePlayerHandler) aThing.getHandler();
-				handler.restoreState();
-			}
-		}
+		snapshotEngine.restoreAll(getAllPlayerHandlers());
 	}
 
 	private void saveAllPlayerState() {
+		snapshotEngine.saveAll(getAllPlayerHandlers());
+	}
+
+	/**
+	 * @return the time in milliseconds it took to save each Zone Player
+	 *         during the last save of all Zone Players, by UDN
+	 */
+	public Map<String, Long> getLastSaveTimings() {
+		return snapshotEngine.getLastSaveTimings();
+	}
+
+	/**
+	 * @return the time in milliseconds it took to restore each Zone Player
+	 *         during the last restore of all Zone Players, by UDN
+	 */
+	public Map<String, Long> getLastRestoreTimings() {
+		return snapshotEngine.getLastRestoreTimings();
+	}
+
+	private List<ZonePlayerHandler> getAllPlayerHandlers() {
+		List<ZonePlayerHandler> handlers = new ArrayList<ZonePlayerHandler>();
 		Collection<Thing> allThings = thingRegistry.getAll();
 		for (Thing aThing : allThings) {
 			if (aThing.getThingTypeUID().equals(
-					this.getThing().getThingTypeUID())) {
-				ZonePlayerHandler handler = (ZonePlayerHandler) aThing.getHandler();
-				handler.saveState();
+					this.getThing().getThingTypeUID())
+					&& aThing.getHandler() != null) {
+				handlers.add((ZonePlayerHandler) aThing.getHandler());
 			}
 		}
+		return handlers;
 	}
 
 	public void onValueReceived(String variable, String value, String service) {
@@ -297,202 +344,348 @@ UpnpIOParticipant, DiscoveryListener {
 
 		this.stateMap.put(variable, value);
 
+		SonosPollScheduler scheduler = pollScheduler;
+		if (scheduler != null) {
+			scheduler.received(service, variable, replying.get() == null);
+		}
+
 		// pre-process some variables, eg XML processing
 		if (service.equals("AVTransport") && variable.equals("LastChange")) {
-			Map<String, String> parsedValues = SonosXMLParser
-					.getAVTransportFromXML(value);
-			for (String parsedValue : parsedValues.keySet()) {
-				onValueReceived(parsedValue, parsedValues.get(parsedValue),
-						"AVTransport");
-			}
+			onValuesReceived(SonosXMLParser.getAVTransportFromXML(value),
+					"AVTransport");
 		}
 
 		if (service.equals("RenderingControl") && variable.equals("LastChange")) {
-			Map<String, String> parsedValues = SonosXMLParser
-					.getRenderingControlFromXML(value);
-			for (String parsedValue : parsedValues.keySet()) {
-				onValueReceived(parsedValue, parsedValues.get(parsedValue),
-						"RenderingControl");
+			onValuesReceived(SonosXMLParser.getRenderingControlFromXML(value),
+					"RenderingControl");
+		}
+
+		Map<String, State> states = new HashMap<String, State>();
+		updateChannels(variable, value, states);
+		publishStates(states);
+	}
+
+	/**
+	 * Process a variable returned by a SOAP call, which unlike a GENA event
+	 * does not show that the subscription to the service is alive.
+	 * 
+	 * @param variable
+	 * @param value
+	 * @param service
+	 */
+	private void onReplyReceived(String variable, String value, String service) {
+		Boolean wasReplying = replying.get();
+		replying.set(Boolean.TRUE);
+		try {
+			onValueReceived(variable, value, service);
+		} finally {
+			if (wasReplying == null) {
+				replying.remove();
 			}
 		}
+	}
+
+	/**
+	 * Apply a set of variables, as parsed from a LastChange event, in one go.
+	 * All the variables are stored before any channel is updated, variables
+	 * whose value did not change are skipped, and each channel is updated at
+	 * most once.
+	 * 
+	 * @param values
+	 * @param service
+	 */
+	protected void onValuesReceived(Map<String, String> values, String service) {
+
+		SonosPollScheduler scheduler = pollScheduler;
+		boolean event = replying.get() == null;
+
+		List<String> changedVariables = new ArrayList<String>(values.size());
+		for (Map.Entry<String, String> entry : values.entrySet()) {
+			String previousValue = this.stateMap.put(entry.getKey(),
+					entry.getValue());
+			if (scheduler != null) {
+				scheduler.received(service, entry.getKey(), event);
+			}
+			if (!StringUtils.equals(previousValue, entry.getValue())) {
+				changedVariables.add(entry.getKey());
+			}
+		}
+
+		logger.trace("Received {} changed out of {} variables (service '{}') for thing '{}'", new Object[] {
+				changedVariables.size(), values.size(), service, this.getThing().getUID() });
+
+		Map<String, State> states = new HashMap<String, State>();
+		for (String variable : changedVariables) {
+			updateChannels(variable, values.get(variable), states);
+		}
+		publishStates(states);
+	}
+
+	/**
+	 * Store a variable derived from other ones, and collect the new states of
+	 * its channels along with those of the variables it was derived from
+	 * 
+	 * @param variable
+	 * @param value
+	 * @param states
+	 *            the new states by channel id
+	 */
+	private void onDerivedValue(String variable, String value, Map<String, State> states) {
+		this.stateMap.put(variable, value);
+		updateChannels(variable, value, states);
+	}
+
+	private void publishStates(Map<String, State> states) {
+		for (Map.Entry<String, State> entry : states.entrySet()) {
+			updateState(channelStateCache.getChannelUID(entry.getKey()), entry.getValue());
+		}
+	}
+
+	/**
+	 * Collect the new states of the channels that depend on the given variable
+	 * 
+	 * @param variable
+	 * @param value
+	 * @param states
+	 *            the new states by channel id
+	 */
+	private void updateChannels(String variable, String value, Map<String, State> states) {
 
-		// update the appropriate channel
 		switch (variable) {
 		case "TransportState": {
-			updateState(new ChannelUID(getThing().getUID(), STATE),
-					(stateMap.get("TransportState") != null) ? new StringType(
-							stateMap.get("TransportState")) : UnDefType.UNDEF);
-			if (stateMap.get("TransportState").equals("PLAYING")) {
-				updateState(new ChannelUID(getThing().getUID(), CONTROL),
-						PlayPauseType.PLAY);
+			// use the value as received, the state may have changed since
+			states.put(STATE, (value != null) ? new StringType(value)
+					: UnDefType.UNDEF);
+			if ("PLAYING".equals(value)) {
+				states.put(CONTROL, PlayPauseType.PLAY);
 			}
-			if (stateMap.get("TransportState").equals("STOPPED")) {
-				updateState(new ChannelUID(getThing().getUID(), CONTROL),
-						PlayPauseType.PAUSE);				
+			if ("STOPPED".equals(value)) {
+				states.put(CONTROL, PlayPauseType.PAUSE);				
 			}
-			if (stateMap.get("TransportState").equals("PAUSED_PLAYBACK")) {
-				updateState(new ChannelUID(getThing().getUID(), CONTROL),
-						PlayPauseType.PAUSE);
+			if ("PAUSED_PLAYBACK".equals(value)) {
+				states.put(CONTROL, PlayPauseType.PAUSE);
 			}
 			break;
 		}
 		case "CurrentLEDState": {
 			State newState = UnDefType.UNDEF;
-			if (stateMap.get("CurrentLEDState") != null) {
-				if (stateMap.get("CurrentLEDState").equals("On")) {
+			if (stateMap.get(Variable.CurrentLEDState) != null) {
+				if (stateMap.get(Variable.CurrentLEDState).equals("On")) {
 					newState = OnOffType.ON;
 				} else {
 					newState = OnOffType.OFF;
 				}
 			}
-			updateState(new ChannelUID(getThing().getUID(), LED), newState);
+			states.put(LED, newState);
 			break;
 		}
 		case "CurrentZoneName": {
-			updateState(new ChannelUID(getThing().getUID(), ZONENAME),
-					(stateMap.get("CurrentZoneName") != null) ? new StringType(
-							stateMap.get("CurrentZoneName")) : UnDefType.UNDEF);
+			states.put(ZONENAME, (stateMap.get(Variable.CurrentZoneName) != null) ? new StringType(
+					stateMap.get(Variable.CurrentZoneName)) : UnDefType.UNDEF);
 		}
 		case "ZoneGroupState": {
-			updateState(new ChannelUID(getThing().getUID(), ZONEGROUP),
-					(stateMap.get("ZoneGroupState") != null) ? new StringType(
-							stateMap.get("ZoneGroupState")) : UnDefType.UNDEF);
+			topology.update(stateMap.get(Variable.ZoneGroupState));
+			states.put(ZONEGROUP, (stateMap.get(Variable.ZoneGroupState) != null) ? new StringType(
+					stateMap.get(Variable.ZoneGroupState)) : UnDefType.UNDEF);
 			break;
 		}
 		case "LocalGroupUUID": {
-			updateState(new ChannelUID(getThing().getUID(), ZONEGROUPID),
-					(stateMap.get("LocalGroupUUID") != null) ? new StringType(
-							stateMap.get("LocalGroupUUID")) : UnDefType.UNDEF);
+			states.put(ZONEGROUPID, (stateMap.get(Variable.LocalGroupUUID) != null) ? new StringType(
+					stateMap.get(Variable.LocalGroupUUID)) : UnDefType.UNDEF);
 			break;
 		}
 		case "GroupCoordinatorIsLocal": {
 			State newState = UnDefType.UNDEF;
-			if (stateMap.get("GroupCoordinatorIsLocal") != null) {
-				if (stateMap.get("GroupCoordinatorIsLocal").equals("On")) {
+			if (stateMap.get(Variable.GroupCoordinatorIsLocal) != null) {
+				if (stateMap.get(Variable.GroupCoordinatorIsLocal).equals("On")) {
 					newState = OnOffType.ON;
 				} else {
 					newState = OnOffType.OFF;
 				}
 			}
-			updateState(new ChannelUID(getThing().getUID(), LOCALCOORDINATOR),
-					newState);
+			states.put(LOCALCOORDINATOR, newState);
 			break;
 		}
 		case "VolumeMaster": {
-			updateState(new ChannelUID(getThing().getUID(), VOLUME),
-					(stateMap.get("VolumeMaster") != null) ? new PercentType(
-							stateMap.get("VolumeMaster")) : UnDefType.UNDEF);
+			states.put(VOLUME, (stateMap.get(Variable.VolumeMaster) != null) ? ChannelStateCache
+					.getPercentType(stateMap.get(Variable.VolumeMaster)) : UnDefType.UNDEF);
 			break;
 		}
 		case "MuteMaster": {
 			State newState = UnDefType.UNDEF;
-			if (stateMap.get("MuteMaster") != null) {
-				if (stateMap.get("MuteMaster").equals("On")) {
+			if (stateMap.get(Variable.MuteMaster) != null) {
+				if (stateMap.get(Variable.MuteMaster).equals("On")) {
 					newState = OnOffType.ON;
 				} else {
 					newState = OnOffType.OFF;
 				}
 			}
-			updateState(new ChannelUID(getThing().getUID(), MUTE), newState);
+			states.put(MUTE, newState);
 			break;
 		}
 		case "LineInConnected": {
 			State newState = UnDefType.UNDEF;
-			if (stateMap.get("LineInConnected") != null) {
-				if (stateMap.get("LineInConnected").equals("On")) {
+			if (stateMap.get(Variable.LineInConnected) != null) {
+				if (stateMap.get(Variable.LineInConnected).equals("On")) {
 					newState = OnOffType.ON;
 				} else {
 					newState = OnOffType.OFF;
 				}
 			}
-			updateState(new ChannelUID(getThing().getUID(), LINEIN), newState);
+			states.put(LINEIN, newState);
 			break;
 		}
 		case "AlarmRunning": {
 			State newState = UnDefType.UNDEF;
-			if (stateMap.get("AlarmRunning") != null) {
-				if (stateMap.get("AlarmRunning").equals("On")) {
+			if (stateMap.get(Variable.AlarmRunning) != null) {
+				if (stateMap.get(Variable.AlarmRunning).equals("On")) {
 					newState = OnOffType.ON;
 				} else {
 					newState = OnOffType.OFF;
 				}
 			}
-			updateState(new ChannelUID(getThing().getUID(), ALARMRUNNING),
-					newState);
+			states.put(ALARMRUNNING, newState);
 			break;
 		}
 		case "RunningAlarmProperties": {
-			updateState(
-					new ChannelUID(getThing().getUID(), ALARMPROPERTIES),
-					(stateMap.get("RunningAlarmProperties") != null) ? new StringType(
-							stateMap.get("RunningAlarmProperties"))
+			states.put(ALARMPROPERTIES, (stateMap.get(Variable.RunningAlarmProperties) != null) ? new StringType(
+					stateMap.get(Variable.RunningAlarmProperties))
 					: UnDefType.UNDEF);
 			break;
 		}
 		case "CurrentURIFormatted": {
-			updateState(
-					new ChannelUID(getThing().getUID(), CURRENTTRACK),
-					(stateMap.get("CurrentURIFormatted") != null) ? new StringType(
-							stateMap.get("CurrentURIFormatted"))
+			states.put(CURRENTTRACK, (stateMap.get(Variable.CurrentURIFormatted) != null) ? new StringType(
+					stateMap.get(Variable.CurrentURIFormatted))
 					: UnDefType.UNDEF);
 			break;
 		}
 		case "CurrentTitle": {
-			updateState(new ChannelUID(getThing().getUID(), CURRENTTITLE),
-					(stateMap.get("CurrentTitle") != null) ? new StringType(
-							stateMap.get("CurrentTitle")) : UnDefType.UNDEF);
+			states.put(CURRENTTITLE, (stateMap.get(Variable.CurrentTitle) != null) ? new StringType(
+					stateMap.get(Variable.CurrentTitle)) : UnDefType.UNDEF);
 			break;
 		}
 		case "CurrentArtist": {
-			updateState(new ChannelUID(getThing().getUID(), CURRENTARTIST),
-					(stateMap.get("CurrentArtist") != null) ? new StringType(
-							stateMap.get("CurrentArtist")) : UnDefType.UNDEF);
+			states.put(CURRENTARTIST, (stateMap.get(Variable.CurrentArtist) != null) ? new StringType(
+					stateMap.get(Variable.CurrentArtist)) : UnDefType.UNDEF);
 			break;
 		}
 		case "CurrentAlbum": {
-			updateState(new ChannelUID(getThing().getUID(), CURRENTALBUM),
-					(stateMap.get("CurrentAlbum") != null) ? new StringType(
-							stateMap.get("CurrentAlbum")) : UnDefType.UNDEF);
+			states.put(CURRENTALBUM, (stateMap.get(Variable.CurrentAlbum) != null) ? new StringType(
+					stateMap.get(Variable.CurrentAlbum)) : UnDefType.UNDEF);
 			break;
 		}
 		case "CurrentTrackMetaData": {
-			updateTrackMetaData();
+			updateTrackMetaData(states);
 			break;
 		}
 		case "CurrentURI": {
-			updateCurrentURIFormatted(value);
+			updateCurrentURIFormatted(value, states);
+			break;
+		}
+		case "ContainerUpdateIDs": {
+			// comma separated pairs of container id and update id, e.g. SQ:,12,R:0,5
+			String[] updateIDs = StringUtils.split(value, ",");
+			if (updateIDs != null) {
+				for (int i = 0; i + 1 < updateIDs.length; i += 2) {
+					entryIndex.update(getHouseholdId(), variable,
+							updateIDs[i], updateIDs[i + 1]);
+				}
+			}
+			break;
+		}
+		case "FavoritesUpdateID":
+		case "RadioFavoritesUpdateID": {
+			entryIndex.update(getHouseholdId(), variable, "R:0", value);
+			break;
+		}
+		case "SavedQueuesUpdateID": {
+			entryIndex.update(getHouseholdId(), variable, "SQ:", value);
 			break;
 		}
 		}
 
 	}
 
-	private synchronized void onSubscription() {
-		// Set up GENA Subscriptions
-		if (service.isRegistered(this)) {
-			for (String subscription : SERVICE_SUBSCRIPTIONS) {
-				service.addSubscription(this, subscription,
-						SUBSCRIPTION_DURATION);
+	private void onSubscription() {
+		synchronized (subscriptionLock) {
+			// Set up GENA Subscriptions
+			if (service.isRegistered(this)) {
+				for (String subscription : SERVICE_SUBSCRIPTIONS) {
+					service.addSubscription(this, subscription,
+							SUBSCRIPTION_DURATION);
+				}
 			}
 		}
 	}
 
-	private synchronized void onUpdate() {
-		if (service.isRegistered(this)) {
-			if (pollingJob == null || pollingJob.isCancelled()) {
-				Configuration config = getThing().getConfiguration();
-				// use default if not specified
-				int refreshInterval = DEFAULT_REFRESH_INTERVAL;
-				Object refreshConfig = config.get("refresh");
-				if (refreshConfig != null) {
-					refreshInterval = ((BigDecimal) refreshConfig).intValue();
+	private void onUpdate() {
+		synchronized (subscriptionLock) {
+			if (service.isRegistered(this)) {
+				if (pollingJob == null || pollingJob.isCancelled()) {
+					Configuration config = getThing().getConfiguration();
+					// use default if not specified
+					int refreshInterval = DEFAULT_REFRESH_INTERVAL;
+					Object refreshConfig = config.get("refresh");
+					if (refreshConfig != null) {
+						refreshInterval = ((BigDecimal) refreshConfig).intValue();
+					}
+					pollScheduler = createPollScheduler(refreshInterval);
+					pollingJob = scheduler.scheduleAtFixedRate(pollingRunnable, 0,
+							refreshInterval, TimeUnit.SECONDS);
 				}
-				pollingJob = scheduler.scheduleAtFixedRate(pollingRunnable, 0,
-						refreshInterval, TimeUnit.SECONDS);
 			}
 		}
 	}
 
+	private SonosPollScheduler createPollScheduler(int refreshInterval) {
+		SonosPollScheduler scheduler = new SonosPollScheduler(refreshInterval,
+				SUBSCRIPTION_DURATION);
+
+		// each poll is skipped as long as one of its variables, or one of the
+		// evented variables that carry the same information, is fresh
+		scheduler.addPoll("DeviceProperties", new Runnable() {
+			@Override
+			public void run() {
+				updateZoneInfo();
+			}
+		}, "CurrentZoneName", "ZoneName");
+		scheduler.addPoll("AVTransport", new Runnable() {
+			@Override
+			public void run() {
+				updateRunningAlarmProperties();
+			}
+		}, "RunningAlarmProperties", "AlarmRunning");
+		scheduler.addPoll("DeviceProperties", new Runnable() {
+			@Override
+			public void run() {
+				updateLed();
+			}
+		}, "CurrentLEDState", "LEDState");
+		scheduler.addPoll("AVTransport", new Runnable() {
+			@Override
+			public void run() {
+				updateMediaInfo();
+			}
+		}, "CurrentURI", "AVTransportURI");
+
+		return scheduler;
+	}
+
+	/**
+	 * @return the number of polls that were executed
+	 */
+	public long getPollsIssued() {
+		return pollScheduler != null ? pollScheduler.getPollsIssued() : 0;
+	}
+
+	/**
+	 * @return the number of polls that were skipped because events kept the
+	 *         variables up to date
+	 */
+	public long getPollsSkipped() {
+		return pollScheduler != null ? pollScheduler.getPollsSkipped() : 0;
+	}
+
 	protected void updateMediaInfo() {
 		Map<String, String> inputs = new HashMap<String, String>();
 		inputs.put("InstanceID", "0");
@@ -501,7 +694,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"GetMediaInfo", inputs);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -510,7 +703,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"DeviceProperties", "GetZoneAttributes", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable),
+			this.onReplyReceived(variable, result.get(variable),
 					"DeviceProperties");
 		}
 	}
@@ -520,7 +713,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"DeviceProperties", "GetLEDState", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable),
+			this.onReplyReceived(variable, result.get(variable),
 					"DeviceProperties");
 		}
 	}
@@ -530,7 +723,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"GetTimeNow", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AlarmClock");
+			this.onReplyReceived(variable, result.get(variable), "AlarmClock");
 		}
 	}
 
@@ -539,7 +732,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"GetPositionInfo", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -558,7 +751,7 @@ UpnpIOParticipant, DiscoveryListener {
 		result.put("RunningAlarmProperties", newStringValue);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -571,34 +764,26 @@ UpnpIOParticipant, DiscoveryListener {
 		result.putAll(result2);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable),
+			this.onReplyReceived(variable, result.get(variable),
 					"DeviceProperties");
 		}
 	}
 
 	public String getCoordinator() {
 
-		if (stateMap.get("ZoneGroupState") != null) {
-
-			Collection<SonosZoneGroup> zoneGroups = SonosXMLParser
-					.getZoneGroupFromXML(stateMap.get("ZoneGroupState"));
-
-			for (SonosZoneGroup zg : zoneGroups) {
-				if (zg.getMembers().contains(
-						getThing().getConfiguration().get(UDN))) {
-					return zg.getCoordinator();
-				}
-			}
+		String coordinator = topology.getCoordinator(getUDN());
+		if (coordinator != null) {
+			return coordinator;
 		}
 
-		return (String) getThing().getConfiguration().get(UDN);
+		return getUDN();
 	}
 
 	public boolean isCoordinator() {
 		return getUDN().equals(getCoordinator());
 	}
 
-	protected void updateTrackMetaData() {
+	protected void updateTrackMetaData(Map<String, State> states) {
 
 		String coordinator = getCoordinator();
 		ZonePlayerHandler coordinatorHandler = getHandlerByName(coordinator);
@@ -625,14 +810,14 @@ UpnpIOParticipant, DiscoveryListener {
 			}
 
 			// update individual variables
-			this.onValueReceived("CurrentArtist", (artist != null) ? artist
-					: "", "AVTransport");
+			onDerivedValue("CurrentArtist", (artist != null) ? artist : "",
+					states);
 			if(title!=null) {
-				this.onValueReceived("CurrentTitle", (title != null) ? title : "",
-						"AVTransport");
+				onDerivedValue("CurrentTitle", (title != null) ? title : "",
+						states);
 			}
-			this.onValueReceived("CurrentAlbum", (album != null) ? album : "",
-					"AVTransport");
+			onDerivedValue("CurrentAlbum", (album != null) ? album : "",
+					states);
 
 			updateMediaInfo();
 
@@ -641,6 +826,12 @@ UpnpIOParticipant, DiscoveryListener {
 	}
 
 	protected void updateCurrentURIFormatted(String URI) {
+		Map<String, State> states = new HashMap<String, State>();
+		updateCurrentURIFormatted(URI, states);
+		publishStates(states);
+	}
+
+	protected void updateCurrentURIFormatted(String URI, Map<String, State> states) {
 
 		String currentURI = URI;
 		SonosMetaData currentTrack = null;
@@ -659,67 +850,50 @@ UpnpIOParticipant, DiscoveryListener {
 		}
 
 		if (currentURI != null) {
-			String title = stateMap.get("CurrentTitle");
-			String resultString = stateMap.get("CurrentURIFormatted");
+			String title = stateMap.get(Variable.CurrentTitle);
+			String resultString = stateMap.get(Variable.CurrentURIFormatted);
 			boolean needsUpdating = false;
 
 			if (opmlPartnerID != null && currentURI.contains("x-sonosapi-stream")) {
 				String stationID = StringUtils.substringBetween(currentURI,
 						":s", "?sid");
-				String previousStationID = stateMap.get("StationID");
-
-				Calendar now = Calendar.getInstance();
-				now.setTime(new Date());
-				now.add(Calendar.MINUTE, -1);
+				String previousStationID = stateMap.get(Variable.StationID);
 
 				if (previousStationID == null
-						|| !previousStationID.equals(stationID)
-						|| lastOPMLQuery == null
-						|| lastOPMLQuery.before(now)) {
+						|| !previousStationID.equals(stationID)) {
+					onDerivedValue("StationID", stationID, states);
+				}
 
-					this.onValueReceived("StationID", stationID, "AVTransport");
+				// grouped players playing the same station share the result
+				List<String> fields = opmlCache.get(stationID,
+						new OpmlQuery(stationID));
 
-					String url = "http://opml.radiotime.com/Describe.ashx?c=nowplaying"
-							+ "&id=" + stationID
-							+ "&partnerId=" + opmlPartnerID
-							+ "&serial=" + getMACAddress();
+				if (fields != null && fields.size() > 0) {
 
-					String response = HttpUtil.executeUrl("GET", url,
-							SOCKET_TIMEOUT);
+					String formattedString = new String();
+					// radio name should be first field
+					title = fields.get(0);
 
-					if(lastOPMLQuery == null) {
-						lastOPMLQuery = Calendar.getInstance();
+					Iterator<String> listIterator = fields.listIterator();
+					while (listIterator.hasNext()) {
+						String field = listIterator.next();
+						formattedString = formattedString + field;
+						if (listIterator.hasNext()) {
+							formattedString = formattedString + " - ";
+						}
 					}
-					lastOPMLQuery.setTime(new Date());
 
-					if(response != null) {
-						List<String> fields = SonosXMLParser
-								.getRadioTimeFromXML(response);
-
-						if (fields != null && fields.size() > 0) {
-
-							resultString = new String();
-							// radio name should be first field
-							title = fields.get(0);
-
-							Iterator<String> listIterator = fields.listIterator();
-							while (listIterator.hasNext()) {
-								String field = listIterator.next();
-								resultString = resultString + field;
-								if (listIterator.hasNext()) {
-									resultString = resultString + " - ";
-								}
-							}
-
-							needsUpdating = true;
-						}
+					if (!formattedString.equals(resultString)
+							|| !title.equals(stateMap.get(Variable.CurrentTitle))) {
+						resultString = formattedString;
+						needsUpdating = true;
 					}
 				}
 			} 
 
 			if(currentURI.contains("x-rincon-stream")) {
 				if(currentTrack != null) {
-					resultString = stateMap.get("CurrentTitle");
+					resultString = stateMap.get(Variable.CurrentTitle);
 					needsUpdating = true;
 				}
 			}
@@ -743,16 +917,45 @@ UpnpIOParticipant, DiscoveryListener {
 
 
 			if(needsUpdating) {
-				this.onValueReceived("CurrentURIFormatted", (resultString != null) ? resultString : "",
-						"AVTransport");
-				this.onValueReceived("CurrentTitle", (title != null) ? title : "",
-						"AVTransport");
+				onDerivedValue("CurrentURIFormatted", (resultString != null) ? resultString : "",
+						states);
+				onDerivedValue("CurrentTitle", (title != null) ? title : "",
+						states);
 			}
 		}
 	}
 
+	/**
+	 * The {@link OpmlQuery} queries the OPML service for the information
+	 * about a radio station
+	 */
+	private class OpmlQuery implements Callable<List<String>> {
+
+		private final String stationID;
+
+		OpmlQuery(String stationID) {
+			this.stationID = stationID;
+		}
+
+		@Override
+		public List<String> call() throws Exception {
+			String url = "http://opml.radiotime.com/Describe.ashx?c=nowplaying"
+					+ "&id=" + stationID
+					+ "&partnerId=" + opmlPartnerID
+					+ "&serial=" + getMACAddress();
+
+			String response = HttpUtil.executeUrl("GET", url,
+					SOCKET_TIMEOUT);
+
+			if (response != null) {
+				return SonosXMLParser.getRadioTimeFromXML(response);
+			}
+			return null;
+		}
+	}
+
 	public boolean isGroupCoordinator() {
-		String value = stateMap.get("GroupCoordinatorIsLocal");
+		String value = stateMap.get(Variable.GroupCoordinatorIsLocal);
 		if (value != null) {
 			return value.equals("1") ? true : false;
 		}
@@ -766,22 +969,22 @@ UpnpIOParticipant, DiscoveryListener {
 	}
 
 	public String getCurrentURI() {
-		return stateMap.get("CurrentURI");
+		return stateMap.get(Variable.CurrentURI);
 	}
 
 	public SonosMetaData getCurrentURIMetadata() {
-		if (stateMap.get("CurrentURIMetaData") != null) {
+		if (stateMap.get(Variable.CurrentURIMetaData) != null) {
 			return SonosXMLParser.getMetaDataFromXML(stateMap
-					.get("CurrentURIMetaData"));
+					.get(Variable.CurrentURIMetaData));
 		} else {
 			return null;
 		}
 	}
 
 	public SonosMetaData getTrackMetadata() {
-		if (stateMap.get("CurrentTrackMetaData") != null) {
+		if (stateMap.get(Variable.CurrentTrackMetaData) != null) {
 			return SonosXMLParser.getMetaDataFromXML(stateMap
-					.get("CurrentTrackMetaData"));
+					.get(Variable.CurrentTrackMetaData));
 		} else {
 			return null;
 		}
@@ -789,9 +992,9 @@ UpnpIOParticipant, DiscoveryListener {
 
 	public SonosMetaData getEnqueuedTransportURIMetaData() {
 
-		if (stateMap.get("EnqueuedTransportURIMetaData") != null) {
+		if (stateMap.get(Variable.EnqueuedTransportURIMetaData) != null) {
 			return SonosXMLParser.getMetaDataFromXML(stateMap
-					.get("EnqueuedTransportURIMetaData"));
+					.get(Variable.EnqueuedTransportURIMetaData));
 		} else {
 			return null;
 		}
@@ -799,17 +1002,17 @@ UpnpIOParticipant, DiscoveryListener {
 
 	public String getMACAddress() {
 		updateZoneInfo();
-		return stateMap.get("MACAddress");
+		return stateMap.get(Variable.MACAddress);
 	}
 
 	public String getPosition() {
 		updatePosition();
-		return stateMap.get("RelTime");
+		return stateMap.get(Variable.RelTime);
 	}
 
 	public long getCurrenTrackNr() {
 		updatePosition();
-		String value = stateMap.get("Track");
+		String value = stateMap.get(Variable.Track);
 		if (value != null) {
 			return Long.valueOf(value);
 		} else {
@@ -818,105 +1021,188 @@ UpnpIOParticipant, DiscoveryListener {
 	}
 
 	public String getVolume() {
-		return stateMap.get("VolumeMaster");
+		return stateMap.get(Variable.VolumeMaster);
 	}
 
 	public String getTransportState() {
-		return stateMap.get("TransportState");
+		return stateMap.get(Variable.TransportState);
 	}
 
 	public List<SonosEntry> getArtists(String filter) {
-		return getEntries("A:", filter);
+		return getEntries(browseArtists(filter));
 	}
 
 	public List<SonosEntry> getArtists() {
-		return getEntries("A:",
-				"dc:title,res,dc:creator,upnp:artist,upnp:album");
+		return getArtists("dc:title,res,dc:creator,upnp:artist,upnp:album");
+	}
+
+	public SonosEntryBrowser browseArtists(String filter) {
+		return browseEntries("A:", filter);
 	}
 
 	public List<SonosEntry> getAlbums(String filter) {
-		return getEntries("A:ALBUM", filter);
+		return getEntries(browseAlbums(filter));
 	}
 
 	public List<SonosEntry> getAlbums() {
-		return getEntries("A:ALBUM",
-				"dc:title,res,dc:creator,upnp:artist,upnp:album");
+		return getAlbums("dc:title,res,dc:creator,upnp:artist,upnp:album");
+	}
+
+	public SonosEntryBrowser browseAlbums(String filter) {
+		return browseEntries("A:ALBUM", filter);
+	}
+
+	/**
+	 * Search the music library for the first album with the given title. The
+	 * library is browsed page by page, up to the page holding the album.
+	 * 
+	 * @param title
+	 * @return the album, or null if there is none with the given title
+	 */
+	public SonosEntry findAlbumByTitle(String title) {
+		return browseAlbums("dc:title,res,dc:creator,upnp:artist,upnp:album").findByTitle(title);
 	}
 
 	public List<SonosEntry> getTracks(String filter) {
-		return getEntries("A:TRACKS", filter);
+		return getEntries(browseTracks(filter));
 	}
 
 	public List<SonosEntry> getTracks() {
-		return getEntries("A:TRACKS",
-				"dc:title,res,dc:creator,upnp:artist,upnp:album");
+		return getTracks("dc:title,res,dc:creator,upnp:artist,upnp:album");
+	}
+
+	public SonosEntryBrowser browseTracks(String filter) {
+		return browseEntries("A:TRACKS", filter);
+	}
+
+	/**
+	 * Search the music library for the first track with the given title. The
+	 * library is browsed page by page, up to the page holding the track.
+	 * 
+	 * @param title
+	 * @return the track, or null if there is none with the given title
+	 */
+	public SonosEntry findTrackByTitle(String title) {
+		return browseTracks("dc:title,res,dc:creator,upnp:artist,upnp:album").findByTitle(title);
 	}
 
 	public List<SonosEntry> getQueue(String filter) {
-		return getEntries("Q:0", filter);
+		return getEntries(browseQueue(filter));
 	}
 
 	public List<SonosEntry> getQueue() {
-		return getEntries("Q:0",
-				"dc:title,res,dc:creator,upnp:artist,upnp:album");
+		return getQueue("dc:title,res,dc:creator,upnp:artist,upnp:album");
+	}
+
+	public SonosEntryBrowser browseQueue(String filter) {
+		return browseEntries("Q:0", filter);
 	}
 
 	public List<SonosEntry> getPlayLists(String filter) {
-		return getEntries("SQ:", filter);
+		return getEntries(browsePlayLists(filter));
 	}
 
 	public List<SonosEntry> getPlayLists() {
-		return getEntries("SQ:",
-				"dc:title,res,dc:creator,upnp:artist,upnp:album");
+		return getIndexedEntries("SQ:").getEntries();
+	}
+
+	public SonosEntryBrowser browsePlayLists(String filter) {
+		return browseEntries("SQ:", filter);
 	}
 
 	public List<SonosEntry> getFavoriteRadios(String filter) {
-		return getEntries("R:0/0", filter);
+		return getEntries(browseFavoriteRadios(filter));
 	}
 
 	public List<SonosEntry> getFavoriteRadios() {
-		return getEntries("R:0/0",
-				"dc:title,res,dc:creator,upnp:artist,upnp:album");
+		return getIndexedEntries("R:0/0").getEntries();
 	}
 
-	protected List<SonosEntry> getEntries(String type, String filter) {
-		long startAt = 0;
-
-		Map<String, String> inputs = new HashMap<String, String>();
-		inputs.put("ObjectID", type);
-		inputs.put("BrowseFlag", "BrowseDirectChildren");
-		inputs.put("Filter", filter);
-		inputs.put("StartingIndex", Long.toString(startAt));
-		inputs.put("RequestedCount", Integer.toString(200));
-		inputs.put("SortCriteria", "");
-
-		List<SonosEntry> resultList = null;
-
-		Map<String, String> result = service.invokeAction(this,
-				"ContentDirectory", "Browse", inputs);
-		Long totalMatches = Long.valueOf(result.get("TotalMatches"));
-		Long initialNumberReturned = Long.valueOf(result.get("NumberReturned"));
-		String initialResult = result.get("Result");
-
-		resultList = SonosXMLParser.getEntriesFromString(initialResult);
-		startAt = startAt + initialNumberReturned;
+	public SonosEntryBrowser browseFavoriteRadios(String filter) {
+		return browseEntries("R:0/0", filter);
+	}
 
-		while (startAt < totalMatches) {
+	/**
+	 * Collect all the entries of a browse. Callers looking for some entries
+	 * only should iterate the browser instead, and close it once done.
+	 * 
+	 * @param browser
+	 * @return the entries
+	 */
+	protected List<SonosEntry> getEntries(SonosEntryBrowser browser) {
+		List<SonosEntry> resultList = new ArrayList<SonosEntry>();
 
-			inputs.put("StartingIndex", Long.toString(startAt));
-			result = service.invokeAction(this, "ContentDirectory", "Browse",
-					inputs);
+		try {
+			while (browser.hasNext()) {
+				resultList.add(browser.next());
+			}
+		} finally {
+			browser.close();
+		}
 
-			// Execute this action synchronously
-			String nextResult = result.get("Result");
-			Long numberReturned = Long.valueOf(result.get("NumberReturned"));
+		return resultList;
+	}
 
-			resultList.addAll(SonosXMLParser.getEntriesFromString(nextResult));
+	/**
+	 * Browse the entries of the given type page by page. The next page is
+	 * requested while the current one is being consumed.
+	 * 
+	 * @param type
+	 * @param filter
+	 * @return a browser that must be closed when abandoned before the last entry
+	 */
+	public SonosEntryBrowser browseEntries(final String type, final String filter) {
+		return new SonosEntryBrowser() {
+			@Override
+			protected Map<String, String> browse(long startingIndex, int requestedCount) {
+				Map<String, String> inputs = new HashMap<String, String>();
+				inputs.put("ObjectID", type);
+				inputs.put("BrowseFlag", "BrowseDirectChildren");
+				inputs.put("Filter", filter);
+				inputs.put("StartingIndex", Long.toString(startingIndex));
+				inputs.put("RequestedCount", Integer.toString(requestedCount));
+				inputs.put("SortCriteria", "");
+
+				return service.invokeAction(ZonePlayerHandler.this,
+						"ContentDirectory", "Browse", inputs);
+			}
+		};
+	}
 
-			startAt = startAt + numberReturned;
+	/**
+	 * Get the entries of the given type from the index shared by the
+	 * household. The entries are only browsed when the Zone Players reported
+	 * a change of the container since it was last browsed.
+	 * 
+	 * @param type
+	 * @return the indexed entries
+	 */
+	protected SonosEntryIndex.Container getIndexedEntries(String type) {
+		String household = getHouseholdId();
+		SonosEntryIndex.Container container = entryIndex.getContainer(
+				household, type);
+		if (!container.isLoaded()) {
+			container = entryIndex.load(household, type, container, getEntries(browseEntries(
+					type, "dc:title,res,dc:creator,upnp:artist,upnp:album")));
 		}
+		return container;
+	}
 
-		return resultList;
+	/**
+	 * Search the entries of the given type for the first one with the given
+	 * title.
+	 * 
+	 * @param type
+	 * @param title
+	 * @return the entry, or null if there is none with the given title
+	 */
+	protected SonosEntry findEntryByTitle(String type, String title) {
+		return getIndexedEntries(type).getByTitle(title);
+	}
+
+	protected String getHouseholdId() {
+		String household = topology.getHouseholdId(getUDN());
+		return household != null ? household : getUDN();
 	}
 
 	/**
@@ -926,7 +1212,7 @@ UpnpIOParticipant, DiscoveryListener {
 	 */
 	protected void saveState() {
 
-		synchronized (this) {
+		synchronized (savedStateLock) {
 
 			savedState = new SonosZonePlayerState();
 			String currentURI = getCurrentURI();
@@ -964,18 +1250,15 @@ UpnpIOParticipant, DiscoveryListener {
 						if (queued.getUpnpClass().contains(
 								"object.container.playlistContainer")) {
 							// we are playing a real 'saved' playlist
-							List<SonosEntry> playLists = getPlayLists();
-							for (SonosEntry someList : playLists) {
-								if (someList.getTitle().equals(
-										queued.getTitle())) {
-									savedState.entry = new SonosEntry(
-											someList.getId(),
-											someList.getTitle(),
-											someList.getParentId(), "", "", "",
-											someList.getUpnpClass(),
-											someList.getRes());
-									break;
-								}
+							SonosEntry someList = findEntryByTitle("SQ:",
+									queued.getTitle());
+							if (someList != null) {
+								savedState.entry = new SonosEntry(
+										someList.getId(),
+										someList.getTitle(),
+										someList.getParentId(), "", "", "",
+										someList.getUpnpClass(),
+										someList.getRes());
 							}
 
 						} else if (queued.getUpnpClass().contains(
@@ -989,31 +1272,24 @@ UpnpIOParticipant, DiscoveryListener {
 
 							// save the playlist
 							String existingList = "";
-							List<SonosEntry> playLists = getPlayLists();
-							for (SonosEntry someList : playLists) {
-								if (someList.getTitle().equals(
-										"openHAB-" + getUDN())) {
-									existingList = someList.getId();
-									break;
-								}
+							SonosEntry someList = findEntryByTitle("SQ:",
+									"openHAB-" + getUDN());
+							if (someList != null) {
+								existingList = someList.getId();
 							}
 
 							saveQueue("openHAB-" + getUDN(), existingList);
 
-							// get all the playlists and a ref to our
-							// saved list
-							playLists = getPlayLists();
-							for (SonosEntry someList : playLists) {
-								if (someList.getTitle().equals(
-										"openHAB-" + getUDN())) {
-									savedState.entry = new SonosEntry(
-											someList.getId(),
-											someList.getTitle(),
-											someList.getParentId(), "", "", "",
-											someList.getUpnpClass(),
-											someList.getRes());
-									break;
-								}
+							// get a ref to our saved list
+							someList = findEntryByTitle("SQ:",
+									"openHAB-" + getUDN());
+							if (someList != null) {
+								savedState.entry = new SonosEntry(
+										someList.getId(),
+										someList.getTitle(),
+										someList.getParentId(), "", "", "",
+										someList.getUpnpClass(),
+										someList.getRes());
 							}
 
 						}
@@ -1037,7 +1313,7 @@ UpnpIOParticipant, DiscoveryListener {
 	 */
 	protected void restoreState() {
 
-		synchronized (this) {
+		synchronized (savedStateLock) {
 			if (savedState != null) {
 				// put settings back
 				if(savedState.volume != null) {
@@ -1082,6 +1358,16 @@ UpnpIOParticipant, DiscoveryListener {
 		}
 	}
 
+	/**
+	 * @return true if the saved state makes the Zone Player re-join a group
+	 *         coordinator when restored
+	 */
+	boolean isSavedAsGroupMember() {
+		SonosZonePlayerState state = savedState;
+		return state != null && state.entry != null
+				&& state.entry.getRes().startsWith("x-rincon:");
+	}
+
 	public void saveQueue(String name, String queueID) {
 
 		if (name != null && queueID != null) {
@@ -1093,8 +1379,11 @@ UpnpIOParticipant, DiscoveryListener {
 			Map<String, String> result = service.invokeAction(this,
 					"AVTransport", "SaveQueue", inputs);
 
+			// do not wait for the event to find the saved queue
+			entryIndex.invalidate(getHouseholdId(), "SQ:");
+
 			for (String variable : result.keySet()) {
-				this.onValueReceived(variable, result.get(variable),
+				this.onReplyReceived(variable, result.get(variable),
 						"AVTransport");
 			}
 		}
@@ -1136,7 +1425,7 @@ UpnpIOParticipant, DiscoveryListener {
 						"RenderingControl", "SetVolume", inputs);
 
 				for (String variable : result.keySet()) {
-					this.onValueReceived(variable, result.get(variable),
+					this.onReplyReceived(variable, result.get(variable),
 							"RenderingControl");
 				}
 			}
@@ -1166,7 +1455,7 @@ UpnpIOParticipant, DiscoveryListener {
 					"AVTransport", "AddURIToQueue", inputs);
 
 			for (String variable : result.keySet()) {
-				this.onValueReceived(variable, result.get(variable),
+				this.onReplyReceived(variable, result.get(variable),
 						"AVTransport");
 			}
 		}
@@ -1195,7 +1484,7 @@ UpnpIOParticipant, DiscoveryListener {
 					"AVTransport", "SetAVTransportURI", inputs);
 
 			for (String variable : result.keySet()) {
-				this.onValueReceived(variable, result.get(variable),
+				this.onReplyReceived(variable, result.get(variable),
 						"AVTransport");
 			}
 		}
@@ -1231,7 +1520,7 @@ UpnpIOParticipant, DiscoveryListener {
 					"AVTransport", "Seek", inputs);
 
 			for (String variable : result.keySet()) {
-				this.onValueReceived(variable, result.get(variable),
+				this.onReplyReceived(variable, result.get(variable),
 						"AVTransport");
 			}
 		}
@@ -1246,7 +1535,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"Play", inputs);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -1255,7 +1544,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"Stop", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -1264,7 +1553,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"Pause", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -1280,7 +1569,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"RemoveAllTracksFromQueue", inputs);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -1368,7 +1657,7 @@ UpnpIOParticipant, DiscoveryListener {
 						"RenderingControl", "SetMute", inputs);
 
 				for (String variable : result.keySet()) {
-					this.onValueReceived(variable, result.get(variable),
+					this.onReplyReceived(variable, result.get(variable),
 							"RenderingControl");
 				}
 			}
@@ -1380,7 +1669,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"ListAlarms", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AlarmClock");
+			this.onReplyReceived(variable, result.get(variable), "AlarmClock");
 		}
 
 		return SonosXMLParser.getAlarmsFromStringResult(result
@@ -1422,7 +1711,7 @@ UpnpIOParticipant, DiscoveryListener {
 					"AlarmClock", "UpdateAlarm", inputs);
 
 			for (String variable : result.keySet()) {
-				this.onValueReceived(variable, result.get(variable),
+				this.onReplyReceived(variable, result.get(variable),
 						"AlarmClock");
 			}
 		}
@@ -1505,11 +1794,11 @@ UpnpIOParticipant, DiscoveryListener {
 
 	public String getTime() {
 		updateTime();
-		return stateMap.get("CurrentLocalTime");
+		return stateMap.get(Variable.CurrentLocalTime);
 	}
 
 	public Boolean isAlarmRunning() {
-		return stateMap.get("AlarmRunning").equals("1") ? true : false;
+		return stateMap.get(Variable.AlarmRunning).equals("1") ? true : false;
 	}
 
 	public void snoozeAlarm(Command command) {
@@ -1537,7 +1826,7 @@ UpnpIOParticipant, DiscoveryListener {
 					"AVTransport", "SnoozeAlarm", inputs);
 
 			for (String variable : result.keySet()) {
-				this.onValueReceived(variable, result.get(variable),
+				this.onReplyReceived(variable, result.get(variable),
 						"AVTransport");
 			}
 		} else {
@@ -1546,7 +1835,7 @@ UpnpIOParticipant, DiscoveryListener {
 	}
 
 	public Boolean isLineInConnected() {
-		return stateMap.get("LineInConnected").equals("1") ? true : false;
+		return stateMap.get(Variable.LineInConnected).equals("1") ? true : false;
 	}
 
 	public void becomeStandAlonePlayer() {
@@ -1554,7 +1843,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"BecomeCoordinatorOfStandaloneGroup", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -1574,8 +1863,8 @@ UpnpIOParticipant, DiscoveryListener {
 			becomeStandAlonePlayer();
 
 			List<SonosZoneGroup> currentSonosZoneGroups = new ArrayList<SonosZoneGroup>();
-			for (SonosZoneGroup grp : SonosXMLParser
-					.getZoneGroupFromXML(stateMap.get("ZoneGroupState"))) {
+			for (SonosZoneGroup grp : topology.getSnapshot()
+					.getHouseholdGroups(getUDN())) {
 				currentSonosZoneGroups.add((SonosZoneGroup) grp.clone());
 			}
 
@@ -1683,7 +1972,7 @@ UpnpIOParticipant, DiscoveryListener {
 						"DeviceProperties", "SetLEDState", inputs);
 
 				for (String variable : result.keySet()) {
-					this.onValueReceived(variable, result.get(variable),
+					this.onReplyReceived(variable, result.get(variable),
 							"DeviceProperties");
 				}
 			}
@@ -1707,7 +1996,7 @@ UpnpIOParticipant, DiscoveryListener {
 				"Previous", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
@@ -1716,23 +2005,15 @@ UpnpIOParticipant, DiscoveryListener {
 				"Next", null);
 
 		for (String variable : result.keySet()) {
-			this.onValueReceived(variable, result.get(variable), "AVTransport");
+			this.onReplyReceived(variable, result.get(variable), "AVTransport");
 		}
 	}
 
 	public void playRadio(Command command) {
-		List<SonosEntry> stations = getFavoriteRadios();
-		SonosEntry theEntry = null;
-
 		if (command instanceof StringType) {
 			String station = command.toString();
 			// search for the appropriate radio based on its name (title)
-			for (SonosEntry someStation : stations) {
-				if (someStation.getTitle().equals(station)) {
-					theEntry = someStation;
-					break;
-				}
-			}
+			SonosEntry theEntry = findEntryByTitle("R:0/0", station);
 
 			// set the URI of the group coordinator
 			if (theEntry != null) {
@@ -1764,20 +2045,12 @@ UpnpIOParticipant, DiscoveryListener {
 	}
 
 	public void playPlayList(Command command) {
-		List<SonosEntry> playlists = getPlayLists();
-		SonosEntry theEntry = null;
-
 		if (command != null && command instanceof StringType) {
 
 			String playlist = command.toString();
 
 			// search for the appropriate play list based on its name (title)
-			for (SonosEntry somePlaylist : playlists) {
-				if (somePlaylist.getTitle().equals(playlist)) {
-					theEntry = somePlaylist;
-					break;
-				}
-			}
+			SonosEntry theEntry = findEntryByTitle("SQ:", playlist);
 
 			// set the URI of the group coordinator
 			if (theEntry != null) {
@@ -1788,7 +2061,7 @@ UpnpIOParticipant, DiscoveryListener {
 
 				if (stateMap != null) {
 					String firstTrackNumberEnqueued = stateMap
-							.get("FirstTrackNumberEnqueued");
+							.get(Variable.FirstTrackNumberEnqueued);
 					if (firstTrackNumberEnqueued != null) {
 						coordinator.seek("TRACK_NR", firstTrackNumberEnqueued);
 					}
@@ -1805,34 +2078,34 @@ UpnpIOParticipant, DiscoveryListener {
 	}
 
 	public String getZoneName() {
-		return stateMap.get("ZoneName");
+		return stateMap.get(Variable.ZoneName);
 	}
 
 	public String getZoneGroupID() {
-		return stateMap.get("LocalGroupUUID");
+		return stateMap.get(Variable.LocalGroupUUID);
 	}
 
 	public String getRunningAlarmProperties() {
 		updateRunningAlarmProperties();
-		return stateMap.get("RunningAlarmProperties");
+		return stateMap.get(Variable.RunningAlarmProperties);
 	}
 
 	public String getMute() {
-		return stateMap.get("MuteMaster");
+		return stateMap.get(Variable.MuteMaster);
 	}
 
 	public boolean getLed() {
-		return stateMap.get("CurrentLEDState").equals("On") ? true : false;
+		return stateMap.get(Variable.CurrentLEDState).equals("On") ? true : false;
 	}
 
 	public String getCurrentZoneName() {
 		updateCurrentZoneName();
-		return stateMap.get("CurrentZoneName");
+		return stateMap.get(Variable.CurrentZoneName);
 	}
 
 	public String getCurrentURIFormatted() {
 		updateCurrentURIFormatted(getCurrentURI());
-		return stateMap.get("CurrentURIFormatted");
+		return stateMap.get(Variable.CurrentURIFormatted);
 	}
 
     @Override
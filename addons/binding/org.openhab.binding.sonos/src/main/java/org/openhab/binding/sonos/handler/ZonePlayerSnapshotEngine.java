@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.handler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ZonePlayerSnapshotEngine} saves and restores the state of a set
+ * of Zone Players. The state of all the Zone Players is captured in parallel.
+ * When restoring, the group coordinators are restored first, in parallel,
+ * after which the members re-join their coordinator, again in parallel.
+ * The time taken for each Zone Player by the last save and the last restore
+ * is kept.
+ *
+ * @author agent - Initial contribution
+ */
+class ZonePlayerSnapshotEngine {
+
+	private Logger logger = LoggerFactory.getLogger(ZonePlayerSnapshotEngine.class);
+
+	private static final int MAX_THREADS = 10;
+
+	private final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+	private volatile Map<String, Long> lastSaveTimings = Collections.emptyMap();
+	private volatile Map<String, Long> lastRestoreTimings = Collections.emptyMap();
+
+	ZonePlayerSnapshotEngine() {
+		// do not keep idle threads around between snapshots
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Save the state of the given Zone Players
+	 *
+	 * @param handlers
+	 * @return the time in milliseconds it took to save each Zone Player, by UDN
+	 */
+	public Map<String, Long> saveAll(Collection<ZonePlayerHandler> handlers) {
+		Map<String, Long> timings = execute(handlers, true);
+		lastSaveTimings = Collections.unmodifiableMap(timings);
+		return timings;
+	}
+
+	/**
+	 * Restore the state of the given Zone Players, coordinators first
+	 *
+	 * @param handlers
+	 * @return the time in milliseconds it took to restore each Zone Player,
+	 *         by UDN
+	 */
+	public Map<String, Long> restoreAll(Collection<ZonePlayerHandler> handlers) {
+		List<ZonePlayerHandler> coordinators = new ArrayList<ZonePlayerHandler>();
+		List<ZonePlayerHandler> members = new ArrayList<ZonePlayerHandler>();
+
+		for (ZonePlayerHandler handler : handlers) {
+			if (handler.isSavedAsGroupMember()) {
+				members.add(handler);
+			} else {
+				coordinators.add(handler);
+			}
+		}
+
+		Map<String, Long> timings = execute(coordinators, false);
+		timings.putAll(execute(members, false));
+		lastRestoreTimings = Collections.unmodifiableMap(timings);
+		return timings;
+	}
+
+	/**
+	 * @return the time in milliseconds it took to save each Zone Player during
+	 *         the last save, by UDN
+	 */
+	public Map<String, Long> getLastSaveTimings() {
+		return lastSaveTimings;
+	}
+
+	/**
+	 * @return the time in milliseconds it took to restore each Zone Player
+	 *         during the last restore, by UDN
+	 */
+	public Map<String, Long> getLastRestoreTimings() {
+		return lastRestoreTimings;
+	}
+
+	private Map<String, Long> execute(Collection<ZonePlayerHandler> handlers, final boolean save) {
+
+		Map<String, Long> timings = new LinkedHashMap<String, Long>();
+		if (handlers.isEmpty()) {
+			return timings;
+		}
+
+		long start = System.currentTimeMillis();
+
+		try {
+			Map<String, Future<Long>> futures = new LinkedHashMap<String, Future<Long>>();
+			for (final ZonePlayerHandler handler : handlers) {
+				futures.put(handler.getUDN(), executor.submit(new Callable<Long>() {
+					@Override
+					public Long call() throws Exception {
+						long start = System.currentTimeMillis();
+						if (save) {
+							handler.saveState();
+						} else {
+							handler.restoreState();
+						}
+						return System.currentTimeMillis() - start;
+					}
+				}));
+			}
+
+			for (Map.Entry<String, Future<Long>> future : futures.entrySet()) {
+				try {
+					Long duration = future.getValue().get();
+					timings.put(future.getKey(), duration);
+					logger.debug("{} the state of zone player '{}' took {} ms",
+							new Object[] { save ? "Saving" : "Restoring", future.getKey(), duration });
+				} catch (ExecutionException e) {
+					logger.error("An exception occurred while {} the state of zone player '{}' : '{}'",
+							new Object[] { save ? "saving" : "restoring", future.getKey(),
+									e.getCause().getMessage() });
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		logger.debug("{} the state of {} zone players took {} ms", new Object[] { save ? "Saving" : "Restoring",
+				handlers.size(), System.currentTimeMillis() - start });
+
+		return timings;
+	}
+
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+
+/**
+ * The {@link ChannelStateCache} keeps the UIDs of the channels of a thing, so
+ * that a state update does not create a new {@link ChannelUID} each time. It
+ * also holds the whole percentages, which are immutable and thus shared by all
+ * things.
+ *
+ * @author agent - Initial contribution
+ */
+public final class ChannelStateCache {
+
+	private static final PercentType[] PERCENTAGES = new PercentType[101];
+
+	static {
+		for (int i = 0; i < PERCENTAGES.length; i++) {
+			PERCENTAGES[i] = new PercentType(i);
+		}
+	}
+
+	private final ThingUID thingUID;
+	private final ConcurrentMap<String, ChannelUID> channelUIDs = new ConcurrentHashMap<String, ChannelUID>();
+
+	/**
+	 * @param thingUID
+	 *            the UID of the thing owning the channels
+	 */
+	public ChannelStateCache(ThingUID thingUID) {
+		this.thingUID = thingUID;
+	}
+
+	/**
+	 * Returns the UID of a channel of the thing, which is created on the first
+	 * call only.
+	 *
+	 * @param channelId
+	 *            the id of the channel
+	 * @return the channel UID
+	 */
+	public ChannelUID getChannelUID(String channelId) {
+		ChannelUID channelUID = channelUIDs.get(channelId);
+		if (channelUID == null) {
+			channelUID = new ChannelUID(thingUID, channelId);
+			ChannelUID previous = channelUIDs.putIfAbsent(channelId, channelUID);
+			if (previous != null) {
+				channelUID = previous;
+			}
+		}
+		return channelUID;
+	}
+
+	/**
+	 * Returns the state of a percentage. Whole percentages are shared, any
+	 * other value is converted as by {@link PercentType#PercentType(String)}.
+	 *
+	 * @param value
+	 *            the percentage
+	 * @return the state
+	 */
+	public static PercentType getPercentType(String value) {
+		int percentage = parseWholePercentage(value);
+		return percentage >= 0 ? PERCENTAGES[percentage] : new PercentType(value);
+	}
+
+	private static int parseWholePercentage(String value) {
+		if (value == null || value.isEmpty() || value.length() > 3) {
+			return -1;
+		}
+		int percentage = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			percentage = percentage * 10 + c - '0';
+		}
+		return percentage < PERCENTAGES.length ? percentage : -1;
+	}
+
+}
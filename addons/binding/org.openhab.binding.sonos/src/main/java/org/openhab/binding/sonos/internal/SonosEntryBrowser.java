@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SonosEntryBrowser} walks the result of a ContentDirectory Browse
+ * action page by page. Entries are handed out as soon as their page has been
+ * received, and the next page is requested in the background while the
+ * current one is being consumed. The browse can be abandoned at any time by
+ * calling {@link #close()}.
+ * 
+ * Pages are requested on an executor of their own, as browsers are also
+ * consumed from scheduler threads. When all of its threads are busy, the next
+ * page is requested by the consuming thread instead.
+ *
+ * @author agent - Initial contribution
+ */
+public abstract class SonosEntryBrowser implements Iterator<SonosEntry> {
+
+	static final Logger logger = LoggerFactory.getLogger(SonosEntryBrowser.class);
+
+	public static final int PAGE_SIZE = 200;
+
+	private static final int MAX_BROWSE_THREADS = 5;
+	private static final long PAGE_TIMEOUT = 30000;
+
+	private static final ExecutorService BROWSE_EXECUTOR = new ThreadPoolExecutor(
+			0, MAX_BROWSE_THREADS, 60, TimeUnit.SECONDS,
+			new SynchronousQueue<Runnable>(), new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Sonos Browse "
+							+ count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+			}, new ThreadPoolExecutor.CallerRunsPolicy());
+
+	private final ExecutorService executor;
+
+	private Iterator<SonosEntry> page = Collections.<SonosEntry> emptyList().iterator();
+	private Future<Map<String, String>> nextPage;
+	private long startAt = 0;
+	private long totalMatches = -1;
+	private boolean closed = false;
+
+	public SonosEntryBrowser() {
+		this(BROWSE_EXECUTOR);
+	}
+
+	/**
+	 * @param executor
+	 *            the executor used to request the next page in the
+	 *            background, or null to request all pages synchronously
+	 */
+	public SonosEntryBrowser(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Execute the Browse action for a single page
+	 *
+	 * @param startingIndex
+	 * @param requestedCount
+	 * @return the result of the Browse action
+	 */
+	protected abstract Map<String, String> browse(long startingIndex, int requestedCount);
+
+	@Override
+	public boolean hasNext() {
+		while (!closed && !page.hasNext()) {
+			if (!fetchNextPage()) {
+				close();
+			}
+		}
+		return !closed;
+	}
+
+	@Override
+	public SonosEntry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return page.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Browse up to the first entry with the given title, without requesting
+	 * the pages after it, and close the browser.
+	 *
+	 * @param title
+	 * @return the entry, or null if there is none with the given title
+	 */
+	public SonosEntry findByTitle(String title) {
+		try {
+			while (hasNext()) {
+				SonosEntry entry = next();
+				if (title.equals(entry.getTitle())) {
+					return entry;
+				}
+			}
+			return null;
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Stop browsing, and cancel the request for the next page if any
+	 */
+	public void close() {
+		closed = true;
+		if (nextPage != null) {
+			nextPage.cancel(false);
+			nextPage = null;
+		}
+	}
+
+	private boolean fetchNextPage() {
+
+		if (totalMatches >= 0 && startAt >= totalMatches) {
+			return false;
+		}
+
+		Map<String, String> result = null;
+		if (nextPage != null) {
+			try {
+				result = nextPage.get(PAGE_TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (ExecutionException e) {
+				logger.error("An exception occurred while browsing entries : '{}'", e.getMessage());
+				return false;
+			} catch (TimeoutException e) {
+				logger.error("No page of entries was received from index {} within {} ms", startAt, PAGE_TIMEOUT);
+				nextPage.cancel(true);
+				return false;
+			} finally {
+				nextPage = null;
+			}
+		} else {
+			result = browse(startAt, PAGE_SIZE);
+		}
+
+		if (result == null || result.get("TotalMatches") == null || result.get("NumberReturned") == null) {
+			return false;
+		}
+
+		long numberReturned = Long.valueOf(result.get("NumberReturned"));
+		if (numberReturned == 0) {
+			return false;
+		}
+
+		totalMatches = Long.valueOf(result.get("TotalMatches"));
+		startAt = startAt + numberReturned;
+
+		if (executor != null && startAt < totalMatches) {
+			final long startingIndex = startAt;
+			nextPage = executor.submit(new Callable<Map<String, String>>() {
+				@Override
+				public Map<String, String> call() throws Exception {
+					return browse(startingIndex, PAGE_SIZE);
+				}
+			});
+		}
+
+		List<SonosEntry> entries = SonosXMLParser.getEntriesFromString(result.get("Result"));
+		page = entries.iterator();
+
+		return true;
+	}
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link SonosEntryIndex} caches the entries of ContentDirectory
+ * containers, like the favorite radios and the saved playlists, per Sonos
+ * household. Entries can be looked up by title or by id without browsing the
+ * container. A container is only browsed again after the Zone Players
+ * reported a new update id for it (ContainerUpdateIDs, FavoritesUpdateID,
+ * ...).
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosEntryIndex {
+
+	private final ConcurrentMap<String, Container> containers = new ConcurrentHashMap<String, Container>();
+	private final ConcurrentMap<String, String> updateIDs = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * @param household
+	 * @param containerId
+	 * @return the cached container, which is not loaded when it has to be
+	 *         browsed (again)
+	 */
+	public Container getContainer(String household, String containerId) {
+		String key = getKey(household, containerId);
+		Container container = containers.get(key);
+		if (container == null) {
+			container = new Container(null);
+			Container existing = containers.putIfAbsent(key, container);
+			if (existing != null) {
+				container = existing;
+			}
+		}
+		return container;
+	}
+
+	/**
+	 * Store the browsed entries of a container. The entries are not kept when
+	 * the container was invalidated while it was being browsed.
+	 *
+	 * @param household
+	 * @param containerId
+	 * @param expected
+	 *            the container as returned by
+	 *            {@link #getContainer(String, String)} before browsing
+	 * @param entries
+	 * @return the loaded container
+	 */
+	public Container load(String household, String containerId, Container expected,
+			Collection<SonosEntry> entries) {
+		Container loaded = new Container(entries);
+		containers.replace(getKey(household, containerId), expected, loaded);
+		return loaded;
+	}
+
+	/**
+	 * Process an update id reported for a container. The cached containers
+	 * whose id starts with the given container id are invalidated when the
+	 * update id changed.
+	 *
+	 * @param household
+	 * @param variable
+	 *            the state variable that reported the update id
+	 * @param containerId
+	 * @param updateID
+	 */
+	public void update(String household, String variable, String containerId, String updateID) {
+		if (updateID == null) {
+			return;
+		}
+		String previous = updateIDs.put(getKey(household, containerId) + "#" + variable, updateID);
+		if (!updateID.equals(previous)) {
+			invalidate(household, containerId);
+		}
+	}
+
+	/**
+	 * Invalidate the cached containers whose id starts with the given
+	 * container id
+	 *
+	 * @param household
+	 * @param containerId
+	 */
+	public void invalidate(String household, String containerId) {
+		String prefix = getKey(household, containerId);
+		for (String key : containers.keySet()) {
+			if (key.startsWith(prefix)) {
+				containers.put(key, new Container(null));
+			}
+		}
+	}
+
+	private String getKey(String household, String containerId) {
+		return household + "#" + containerId;
+	}
+
+	/**
+	 * The {@link Container} holds the entries of a ContentDirectory container,
+	 * indexed by title and by id
+	 */
+	public static class Container {
+
+		private final List<SonosEntry> entries;
+		private final Map<String, SonosEntry> entriesByTitle;
+		private final Map<String, SonosEntry> entriesById;
+
+		Container(Collection<SonosEntry> entries) {
+			if (entries == null) {
+				this.entries = null;
+				entriesByTitle = null;
+				entriesById = null;
+			} else {
+				Map<String, SonosEntry> byTitle = new HashMap<String, SonosEntry>();
+				Map<String, SonosEntry> byId = new HashMap<String, SonosEntry>();
+				for (SonosEntry entry : entries) {
+					// the first entry with a given title wins, as when searching the list
+					if (!byTitle.containsKey(entry.getTitle())) {
+						byTitle.put(entry.getTitle(), entry);
+					}
+					byId.put(entry.getId(), entry);
+				}
+				this.entries = Collections.unmodifiableList(new ArrayList<SonosEntry>(entries));
+				entriesByTitle = Collections.unmodifiableMap(byTitle);
+				entriesById = Collections.unmodifiableMap(byId);
+			}
+		}
+
+		/**
+		 * @return false if the container has to be browsed (again)
+		 */
+		public boolean isLoaded() {
+			return entriesByTitle != null;
+		}
+
+		public SonosEntry getByTitle(String title) {
+			return entriesByTitle != null ? entriesByTitle.get(title) : null;
+		}
+
+		public SonosEntry getById(String id) {
+			return entriesById != null ? entriesById.get(id) : null;
+		}
+
+		public List<SonosEntry> getEntries() {
+			return entries != null ? entries : Collections.<SonosEntry> emptyList();
+		}
+	}
+
+}
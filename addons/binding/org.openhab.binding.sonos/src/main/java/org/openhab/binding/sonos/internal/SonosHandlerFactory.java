@@ -46,6 +46,15 @@ public class SonosHandlerFactory extends BaseThingHandlerFactory {
 
 	// optional OPML partner id that can be configured through configuration admin 
 	private String opmlPartnerID = null;
+
+	// the Zone Group topology shared by all the Zone Players
+	private final SonosZoneGroupTopology topology = new SonosZoneGroupTopology();
+
+	// the favorites and playlists shared by all the Zone Players
+	private final SonosEntryIndex entryIndex = new SonosEntryIndex();
+
+	// the radio station information shared by all the Zone Players
+	private final SonosOpmlCache opmlCache = new SonosOpmlCache(60000);
 	
     private final static Collection<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Lists.newArrayList(ZONEPLAYER_THING_TYPE_UID);
     
@@ -81,7 +90,7 @@ public class SonosHandlerFactory extends BaseThingHandlerFactory {
 
         if (thingTypeUID.equals(ZONEPLAYER_THING_TYPE_UID)) {
         	logger.debug("Creating a ZonePlayerHandler for thing '{}' with UDN '{}'",thing.getUID(),thing.getConfiguration().get(UDN));
-            return new ZonePlayerHandler(thing, upnpIOService, discoveryServiceRegistry, opmlPartnerID);
+            return new ZonePlayerHandler(thing, upnpIOService, discoveryServiceRegistry, opmlPartnerID, topology, entryIndex, opmlCache);
         }
 
         return null;
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SonosOpmlCache} keeps the "now playing" information of radio
+ * stations, as returned by the OPML (RadioTime/TuneIn) service, for a limited
+ * time. It is shared by all the Zone Players, so that grouped players playing
+ * the same station do not each query the service. Concurrent lookups of the
+ * same station wait for the single query that is in flight.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosOpmlCache {
+
+	static final Logger logger = LoggerFactory.getLogger(SonosOpmlCache.class);
+
+	private final long timeToLive;
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+	/**
+	 * @param timeToLive
+	 *            the time in milliseconds the information of a station is
+	 *            kept
+	 */
+	public SonosOpmlCache(long timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Get the information of a station, querying the OPML service only if
+	 * there is no recent information and no query in flight for the station
+	 *
+	 * @param stationID
+	 * @param query
+	 *            the query of the OPML service, returning null on failure
+	 * @return the text fields describing the station, or null if the query
+	 *         failed
+	 */
+	public List<String> get(String stationID, Callable<List<String>> query) {
+
+		while (true) {
+			long now = System.currentTimeMillis();
+			Entry entry = entries.get(stationID);
+
+			if (entry == null || now - entry.timestamp >= timeToLive) {
+				Entry newEntry = new Entry(new FutureTask<List<String>>(query), now);
+				boolean owner = (entry == null) ? entries.putIfAbsent(stationID, newEntry) == null : entries
+						.replace(stationID, entry, newEntry);
+				if (!owner) {
+					// somebody else started a query in the meantime
+					continue;
+				}
+				newEntry.task.run();
+				entry = newEntry;
+			}
+
+			try {
+				List<String> fields = entry.task.get();
+				if (fields == null) {
+					// do not keep failures around
+					entries.remove(stationID, entry);
+				}
+				return fields;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			} catch (ExecutionException e) {
+				entries.remove(stationID, entry);
+				logger.debug("Could not query the OPML service for station '{}' : '{}'", stationID, e.getCause()
+						.getMessage());
+				return null;
+			}
+		}
+	}
+
+	private static class Entry {
+
+		private final FutureTask<List<String>> task;
+		private final long timestamp;
+
+		Entry(FutureTask<List<String>> task, long timestamp) {
+			this.task = task;
+			this.timestamp = timestamp;
+		}
+	}
+
+}
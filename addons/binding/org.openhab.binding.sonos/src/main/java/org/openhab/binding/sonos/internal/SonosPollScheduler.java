@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SonosPollScheduler} decides which of the polls of a Zone Player
+ * are actually needed. It tracks when each UPnP variable was last received,
+ * and only polls a group of variables once none of them has been received
+ * for the refresh interval. As long as GENA events keep arriving for the
+ * service a poll belongs to, that interval is stretched.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosPollScheduler {
+
+	static final Logger logger = LoggerFactory.getLogger(SonosPollScheduler.class);
+
+	/**
+	 * The factor by which the refresh interval is stretched for a service
+	 * with a healthy subscription
+	 */
+	private static final int HEALTHY_BACKOFF = 5;
+
+	private final long refreshInterval;
+	private final long healthyInterval;
+	private final long healthWindow;
+
+	private final List<Poll> polls = new ArrayList<Poll>();
+	private final ConcurrentMap<String, Long> variableTimestamps = new ConcurrentHashMap<String, Long>();
+	private final ConcurrentMap<String, Long> eventTimestamps = new ConcurrentHashMap<String, Long>();
+
+	private final AtomicLong pollsIssued = new AtomicLong();
+	private final AtomicLong pollsSkipped = new AtomicLong();
+
+	/**
+	 * @param refreshInterval
+	 *            the refresh interval in seconds
+	 * @param subscriptionDuration
+	 *            the duration of the GENA subscriptions in seconds
+	 */
+	public SonosPollScheduler(int refreshInterval, int subscriptionDuration) {
+		this.refreshInterval = refreshInterval * 1000L;
+		this.healthWindow = Math.max(refreshInterval, subscriptionDuration) * 1000L;
+		this.healthyInterval = Math.min(this.refreshInterval * HEALTHY_BACKOFF, this.healthWindow);
+	}
+
+	/**
+	 * Add a poll to the schedule
+	 *
+	 * @param service
+	 *            the service whose subscription provides the variables
+	 * @param runnable
+	 *            the poll itself
+	 * @param variables
+	 *            the variables that are refreshed by the poll, or by events
+	 *            that make the poll unneeded
+	 */
+	public void addPoll(String service, Runnable runnable, String... variables) {
+		polls.add(new Poll(service, runnable, Arrays.asList(variables)));
+	}
+
+	/**
+	 * Record that a variable has been received
+	 *
+	 * @param service
+	 * @param variable
+	 * @param event
+	 *            true if the variable was pushed by a GENA event rather than
+	 *            returned by a poll
+	 */
+	public void received(String service, String variable, boolean event) {
+		Long now = currentTimeMillis();
+		variableTimestamps.put(variable, now);
+		if (event) {
+			eventTimestamps.put(service, now);
+		}
+	}
+
+	/**
+	 * Execute the polls whose variables have gone stale
+	 */
+	public void run() {
+		long now = currentTimeMillis();
+
+		for (Poll poll : polls) {
+			if (isStale(poll, now)) {
+				pollsIssued.incrementAndGet();
+				poll.runnable.run();
+			} else {
+				pollsSkipped.incrementAndGet();
+			}
+		}
+
+		logger.trace("{} polls issued, {} polls skipped", pollsIssued.get(), pollsSkipped.get());
+	}
+
+	private boolean isStale(Poll poll, long now) {
+		Long lastEvent = eventTimestamps.get(poll.service);
+		long interval = (lastEvent != null && now - lastEvent < healthWindow) ? healthyInterval : refreshInterval;
+
+		for (String variable : poll.variables) {
+			Long timestamp = variableTimestamps.get(variable);
+			// allow for some jitter of the scheduler
+			if (timestamp != null && now - timestamp < interval - 1000) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * @return the current time in ms, overridden by tests
+	 */
+	protected long currentTimeMillis() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * @return the number of polls that were executed
+	 */
+	public long getPollsIssued() {
+		return pollsIssued.get();
+	}
+
+	/**
+	 * @return the number of polls that were skipped because their variables
+	 *         were still fresh
+	 */
+	public long getPollsSkipped() {
+		return pollsSkipped.get();
+	}
+
+	private static class Poll {
+
+		private final String service;
+		private final Runnable runnable;
+		private final List<String> variables;
+
+		Poll(String service, Runnable runnable, List<String> variables) {
+			this.service = service;
+			this.runnable = runnable;
+			this.variables = variables;
+		}
+	}
+
+}
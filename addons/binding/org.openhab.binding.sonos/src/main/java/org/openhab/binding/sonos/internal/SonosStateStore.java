@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The {@link SonosStateStore} holds the values of the UPnP state variables of
+ * a Zone Player. The variables the binding knows about are kept in a slot of
+ * their own, indexed by {@link Variable}, any other variable is kept in a
+ * concurrent map. Neither readers nor writers ever block. A write atomically
+ * returns the value it replaced, which tells whether the variable changed.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosStateStore {
+
+	/**
+	 * The UPnP state variables that are used by the binding
+	 */
+	public enum Variable {
+		AlarmRunning,
+		AVTransportURI,
+		CurrentAlbum,
+		CurrentArtist,
+		CurrentLEDState,
+		CurrentLocalTime,
+		CurrentTitle,
+		CurrentTrackMetaData,
+		CurrentURI,
+		CurrentURIFormatted,
+		CurrentURIMetaData,
+		CurrentZoneName,
+		EnqueuedTransportURIMetaData,
+		FirstTrackNumberEnqueued,
+		GroupCoordinatorIsLocal,
+		LEDState,
+		LineInConnected,
+		LocalGroupUUID,
+		MACAddress,
+		MuteMaster,
+		RelTime,
+		RunningAlarmProperties,
+		StationID,
+		Track,
+		TransportState,
+		VolumeMaster,
+		ZoneGroupState,
+		ZoneName;
+
+		private static final Map<String, Variable> BY_NAME = new HashMap<String, Variable>();
+
+		static {
+			for (Variable variable : values()) {
+				BY_NAME.put(variable.name(), variable);
+			}
+		}
+
+		/**
+		 * @param name
+		 * @return the variable with the given name, or null if the binding
+		 *         does not know about it
+		 */
+		public static Variable lookup(String name) {
+			return BY_NAME.get(name);
+		}
+	}
+
+	private final AtomicReferenceArray<String> slots = new AtomicReferenceArray<String>(Variable.values().length);
+	private final ConcurrentMap<String, String> others = new ConcurrentHashMap<String, String>();
+
+	public String get(Variable variable) {
+		return slots.get(variable.ordinal());
+	}
+
+	public String get(String variable) {
+		Variable known = Variable.lookup(variable);
+		if (known != null) {
+			return get(known);
+		}
+		return others.get(variable);
+	}
+
+	/**
+	 * @param variable
+	 * @param value
+	 * @return the previous value of the variable
+	 */
+	public String put(Variable variable, String value) {
+		return slots.getAndSet(variable.ordinal(), value);
+	}
+
+	/**
+	 * @param variable
+	 * @param value
+	 * @return the previous value of the variable
+	 */
+	public String put(String variable, String value) {
+		Variable known = Variable.lookup(variable);
+		if (known != null) {
+			return put(known, value);
+		}
+		if (value == null) {
+			return others.remove(variable);
+		}
+		return others.put(variable, value);
+	}
+
+}
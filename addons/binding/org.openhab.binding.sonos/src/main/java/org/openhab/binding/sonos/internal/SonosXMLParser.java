@@ -69,6 +69,86 @@ public class SonosXMLParser {
 		albumArtist;
 	}
 
+	// SAX readers are not thread-safe, but can be reused for consecutive
+	// parses, so each thread keeps its own reader and set of handlers
+	private static final ThreadLocal<XMLReader> READERS = new ThreadLocal<XMLReader>();
+
+	private static final ThreadLocal<AlarmHandler> ALARM_HANDLERS = new ThreadLocal<AlarmHandler>() {
+		@Override
+		protected AlarmHandler initialValue() {
+			return new AlarmHandler();
+		}
+	};
+
+	private static final ThreadLocal<EntryHandler> ENTRY_HANDLERS = new ThreadLocal<EntryHandler>() {
+		@Override
+		protected EntryHandler initialValue() {
+			return new EntryHandler();
+		}
+	};
+
+	private static final ThreadLocal<ZoneGroupHandler> ZONEGROUP_HANDLERS = new ThreadLocal<ZoneGroupHandler>() {
+		@Override
+		protected ZoneGroupHandler initialValue() {
+			return new ZoneGroupHandler();
+		}
+	};
+
+	private static final ThreadLocal<OpmlHandler> OPML_HANDLERS = new ThreadLocal<OpmlHandler>() {
+		@Override
+		protected OpmlHandler initialValue() {
+			return new OpmlHandler();
+		}
+	};
+
+	private static final ThreadLocal<RenderingControlEventHandler> RENDERINGCONTROL_HANDLERS = new ThreadLocal<RenderingControlEventHandler>() {
+		@Override
+		protected RenderingControlEventHandler initialValue() {
+			return new RenderingControlEventHandler();
+		}
+	};
+
+	private static final ThreadLocal<AVTransportEventHandler> AVTRANSPORT_HANDLERS = new ThreadLocal<AVTransportEventHandler>() {
+		@Override
+		protected AVTransportEventHandler initialValue() {
+			return new AVTransportEventHandler();
+		}
+	};
+
+	private static final ThreadLocal<MetaDataHandler> METADATA_HANDLERS = new ThreadLocal<MetaDataHandler>() {
+		@Override
+		protected MetaDataHandler initialValue() {
+			return new MetaDataHandler();
+		}
+	};
+
+	/**
+	 * Parse the given input with the reader of the calling thread
+	 * 
+	 * @param handler
+	 * @param source
+	 * @throws IOException
+	 * @throws SAXException
+	 */
+	private static void parse(DefaultHandler handler, InputSource source) throws IOException, SAXException {
+		XMLReader reader = READERS.get();
+		if (reader == null) {
+			reader = XMLReaderFactory.createXMLReader();
+			READERS.set(reader);
+		}
+		reader.setContentHandler(handler);
+		try {
+			reader.parse(source);
+		} finally {
+			// do not keep a reference to the handler, and its results, around
+			reader.setContentHandler(null);
+		}
+	}
+
+	private static InputSource getInputSource(String xml) {
+		return new InputSource(new StringReader(xml));
+	}
+
 	/**
 	 * @param xml
 	 * @return a list of alarms from the given xml string.
@@ -76,11 +156,10 @@ public class SonosXMLParser {
 	 * @throws SAXException
 	 */
 	public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
-		AlarmHandler handler = new AlarmHandler();
+		AlarmHandler handler = ALARM_HANDLERS.get();
+		handler.reset();
 		try {
-			XMLReader reader = XMLReaderFactory.createXMLReader();
-			reader.setContentHandler(handler);
-			reader.parse(new InputSource(new StringReader(xml)));
+			parse(handler, getInputSource(xml));
 		} catch (IOException e) {
 			logger.error("Could not parse Alarms from string '{}",xml);
 		} catch (SAXException s) {
@@ -97,11 +176,10 @@ public class SonosXMLParser {
 	 * @throws SAXException
 	 */
 	public static List<SonosEntry> getEntriesFromString(String xml)  {
-		EntryHandler handler = new EntryHandler();
+		EntryHandler handler = ENTRY_HANDLERS.get();
+		handler.reset();
 		try {
-			XMLReader reader = XMLReaderFactory.createXMLReader();
-			reader.setContentHandler(handler);
-			reader.parse(new InputSource(new StringReader(xml)));
+			parse(handler, getInputSource(xml));
 		} catch (IOException e) {
 			logger.error("Could not parse Entries from string '{}'",xml);
 		}
@@ -120,11 +198,10 @@ public class SonosXMLParser {
 	 * @throws SAXException
 	 */
 	public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
-		ZoneGroupHandler handler = new ZoneGroupHandler();
+		ZoneGroupHandler handler = ZONEGROUP_HANDLERS.get();
+		handler.reset();
 		try {
-			XMLReader reader = XMLReaderFactory.createXMLReader();
-			reader.setContentHandler(handler);
-			reader.parse(new InputSource(new StringReader(xml)));
+			parse(handler, getInputSource(xml));
 		} catch (IOException e) {
 			// This should never happen - we're not performing I/O!
 			logger.error("Could not parse ZoneGroup from string '{}'",xml);
@@ -137,11 +214,10 @@ public class SonosXMLParser {
 	}
 
 	public static List<String> getRadioTimeFromXML(String xml) {
-		OpmlHandler handler = new OpmlHandler();
+		OpmlHandler handler = OPML_HANDLERS.get();
+		handler.reset();
 		try {
-			XMLReader reader = XMLReaderFactory.createXMLReader();
-			reader.setContentHandler(handler);
-			reader.parse(new InputSource(new StringReader(xml)));
+			parse(handler, getInputSource(xml));
 		} catch (IOException e) {
 			// This should never happen - we're not performing I/O!
 			logger.error("Could not parse RadioTime from string '{}'",xml);
@@ -154,11 +230,10 @@ public class SonosXMLParser {
 	}
 
 	public static Map<String, String> getRenderingControlFromXML(String xml) {
-		RenderingControlEventHandler handler = new RenderingControlEventHandler();
+		RenderingControlEventHandler handler = RENDERINGCONTROL_HANDLERS.get();
+		handler.reset();
 		try {
-			XMLReader reader = XMLReaderFactory.createXMLReader();
-			reader.setContentHandler(handler);
-			reader.parse(new InputSource(new StringReader(xml)));
+			parse(handler, getInputSource(xml));
 		} catch (IOException e) {
 			// This should never happen - we're not performing I/O!
 			logger.debug("Could not parse Rendering Control from string '{}'", xml);
@@ -169,11 +244,10 @@ public class SonosXMLParser {
 	}
 
 	public static Map<String, String> getAVTransportFromXML(String xml) {
-		AVTransportEventHandler handler = new AVTransportEventHandler();
+		AVTransportEventHandler handler = AVTRANSPORT_HANDLERS.get();
+		handler.reset();
 		try {
-			XMLReader reader = XMLReaderFactory.createXMLReader();
-			reader.setContentHandler(handler);
-			reader.parse(new InputSource(new StringReader(xml)));
+			parse(handler, getInputSource(xml));
 		} catch (IOException e) {
 			// This should never happen - we're not performing I/O!
 			logger.error("Could not parse AV Transport from string '{}'",xml);
@@ -184,11 +258,10 @@ public class SonosXMLParser {
 	}
 
 	public static SonosMetaData getMetaDataFromXML(String xml)  {
-		MetaDataHandler handler = new MetaDataHandler();
+		MetaDataHandler handler = METADATA_HANDLERS.get();
+		handler.reset();
 		try {
-			XMLReader reader = XMLReaderFactory.createXMLReader();
-			reader.setContentHandler(handler);
-			reader.parse(new InputSource(new StringReader(xml)));
+			parse(handler, getInputSource(xml));
 		} catch (IOException e) {
 			// This should never happen - we're not performing I/O!
 			logger.error("Could not parse MetaData from string '{}'",xml);
@@ -207,13 +280,13 @@ public class SonosXMLParser {
 
 		private String id;
 		private String parentId;
-		private StringBuilder upnpClass = new StringBuilder();
-		private StringBuilder res = new StringBuilder();
-		private StringBuilder title = new StringBuilder();
-		private StringBuilder album = new StringBuilder();
-		private StringBuilder albumArtUri = new StringBuilder();
-		private StringBuilder creator = new StringBuilder();
-		private StringBuilder trackNumber = new StringBuilder();
+		private final StringBuilder upnpClass = new StringBuilder();
+		private final StringBuilder res = new StringBuilder();
+		private final StringBuilder title = new StringBuilder();
+		private final StringBuilder album = new StringBuilder();
+		private final StringBuilder albumArtUri = new StringBuilder();
+		private final StringBuilder creator = new StringBuilder();
+		private final StringBuilder trackNumber = new StringBuilder();
 		private Element element = null;
 
 		private List<SonosEntry> artists = new ArrayList<SonosEntry>();
@@ -222,6 +295,25 @@ public class SonosXMLParser {
 			// shouldn't be used outside of this package.
 		}
 
+		void reset() {
+			id = null;
+			parentId = null;
+			element = null;
+			clearElements();
+			// the previous list has been handed out to the caller
+			artists = new ArrayList<SonosEntry>();
+		}
+
+		private void clearElements() {
+			title.setLength(0);
+			upnpClass.setLength(0);
+			res.setLength(0);
+			album.setLength(0);
+			albumArtUri.setLength(0);
+			creator.setLength(0);
+			trackNumber.setLength(0);
+		}
+
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
 			if (qName.equals("container") || qName.equals("item")) {
@@ -298,13 +390,7 @@ public class SonosXMLParser {
 
 				artists.add(new SonosEntry(id, title.toString(), parentId, album.toString(), 
 						albumArtUri.toString(), creator.toString(), upnpClass.toString(), res.toString(), trackNumberVal));
-				title= new StringBuilder();
-				upnpClass = new StringBuilder();
-				res = new StringBuilder();
-				album = new StringBuilder();
-				albumArtUri = new StringBuilder();
-				creator = new StringBuilder();
-				trackNumber = new StringBuilder();
+				clearElements();
 			}
 		}
 
@@ -333,6 +419,22 @@ public class SonosXMLParser {
 			// shouldn't be used outside of this package.
 		}
 
+		void reset() {
+			id = null;
+			startTime = null;
+			duration = null;
+			recurrence = null;
+			enabled = null;
+			roomUUID = null;
+			programURI = null;
+			programMetaData = null;
+			playMode = null;
+			volume = null;
+			includeLinkedZones = null;
+			// the previous list has been handed out to the caller
+			alarms = new ArrayList<SonosAlarm>();
+		}
+
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
 
@@ -393,11 +495,19 @@ public class SonosXMLParser {
 
 	static private class ZoneGroupHandler extends DefaultHandler {
 
-		private final List<SonosZoneGroup> groups = new ArrayList<SonosZoneGroup>();
+		private List<SonosZoneGroup> groups = new ArrayList<SonosZoneGroup>();
 		private final List<String> currentGroupPlayers = new ArrayList<String>();
 		private String coordinator;
 		private String groupId;
 
+		void reset() {
+			coordinator = null;
+			groupId = null;
+			currentGroupPlayers.clear();
+			// the previous list has been handed out to the caller
+			groups = new ArrayList<SonosZoneGroup>();
+		}
+
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
 			if (qName.equals("ZoneGroup")) {
@@ -442,11 +552,19 @@ public class SonosXMLParser {
 		//		</body>
 		//	</opml>
 
-		private final List<String> textFields = new ArrayList<String>();
+		private List<String> textFields = new ArrayList<String>();
 		private String textField;
 		private String type;
 		private String logo;
 
+		void reset() {
+			textField = null;
+			type = null;
+			logo = null;
+			// the previous list has been handed out to the caller
+			textFields = new ArrayList<String>();
+		}
+
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
 			if (qName.equals("outline")) {
@@ -513,7 +631,12 @@ public class SonosXMLParser {
 		</Event>
 		 */
 
-		private final Map<String, String> changes = new HashMap<String, String>();
+		private Map<String, String> changes = new HashMap<String, String>();
+
+		void reset() {
+			// the previous map has been handed out to the caller
+			changes = new HashMap<String, String>();
+		}
 
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
@@ -543,14 +666,28 @@ public class SonosXMLParser {
 
 		private String id = "-1";
 		private String parentId = "-1";
-		private StringBuilder resource = new StringBuilder();
-		private StringBuilder streamContent = new StringBuilder();
-		private StringBuilder albumArtUri = new StringBuilder();
-		private StringBuilder title = new StringBuilder();
-		private StringBuilder upnpClass = new StringBuilder();
-		private StringBuilder creator = new StringBuilder();
-		private StringBuilder album = new StringBuilder();
-		private StringBuilder albumArtist = new StringBuilder();
+		private final StringBuilder resource = new StringBuilder();
+		private final StringBuilder streamContent = new StringBuilder();
+		private final StringBuilder albumArtUri = new StringBuilder();
+		private final StringBuilder title = new StringBuilder();
+		private final StringBuilder upnpClass = new StringBuilder();
+		private final StringBuilder creator = new StringBuilder();
+		private final StringBuilder album = new StringBuilder();
+		private final StringBuilder albumArtist = new StringBuilder();
+
+		void reset() {
+			currentElement = null;
+			id = "-1";
+			parentId = "-1";
+			resource.setLength(0);
+			streamContent.setLength(0);
+			albumArtUri.setLength(0);
+			title.setLength(0);
+			upnpClass.setLength(0);
+			creator.setLength(0);
+			album.setLength(0);
+			albumArtist.setLength(0);
+		}
 
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
@@ -616,11 +753,18 @@ public class SonosXMLParser {
 
 	static private class RenderingControlEventHandler extends DefaultHandler {
 
-		private final Map<String, String> changes = new HashMap<String, String>();
+		private Map<String, String> changes = new HashMap<String, String>();
 
 		private boolean getPresetName=false;
 		private String presetName;
 
+		void reset() {
+			getPresetName = false;
+			presetName = null;
+			// the previous map has been handed out to the caller
+			changes = new HashMap<String, String>();
+		}
+
 		@Override
 		public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
 
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.sonos.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@link SonosZoneGroupTopology} is the shared model of the Zone Groups
+ * of all the Sonos households seen by the binding. The ZoneGroupState XML is
+ * parsed once per distinct event, after which every Zone Player reads the
+ * resulting immutable {@link Snapshot} without locking.
+ *
+ * @author agent - Initial contribution
+ */
+public class SonosZoneGroupTopology {
+
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<Snapshot>(
+			new Snapshot(0, Collections.<Household> emptyList()));
+
+	private final AtomicLong householdCounter = new AtomicLong();
+
+	/**
+	 * Update the topology with a ZoneGroupState as reported by one of the Zone
+	 * Players. Identical states, as received by every other member of the
+	 * household, are recognised without parsing them again.
+	 *
+	 * @param xml
+	 *            the ZoneGroupState value
+	 * @return the snapshot that reflects the given ZoneGroupState
+	 */
+	public Snapshot update(String xml) {
+
+		if (xml == null) {
+			return snapshot.get();
+		}
+
+		Snapshot current = snapshot.get();
+		if (current.contains(xml)) {
+			return current;
+		}
+
+		List<SonosZoneGroup> groups = SonosXMLParser.getZoneGroupFromXML(xml);
+		Set<String> members = new HashSet<String>();
+		for (SonosZoneGroup group : groups) {
+			members.addAll(group.getMembers());
+		}
+
+		while (true) {
+			current = snapshot.get();
+			if (current.contains(xml)) {
+				return current;
+			}
+
+			// the new state replaces the household(s) it shares players with
+			String householdId = null;
+			List<Household> households = new ArrayList<Household>();
+			for (Household household : current.households) {
+				if (Collections.disjoint(household.members, members)) {
+					households.add(household);
+				} else if (householdId == null) {
+					householdId = household.id;
+				}
+			}
+			if (householdId == null) {
+				householdId = "household" + householdCounter.incrementAndGet();
+			}
+			households.add(new Household(householdId, xml, groups, members));
+
+			Snapshot next = new Snapshot(current.version + 1, households);
+			if (snapshot.compareAndSet(current, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * @return the current snapshot of the topology
+	 */
+	public Snapshot getSnapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * @return the version of the current snapshot, which is incremented each
+	 *         time the topology changes
+	 */
+	public long getVersion() {
+		return snapshot.get().getVersion();
+	}
+
+	/**
+	 * @param udn
+	 * @return the group the given Zone Player is a member of, or null if unknown
+	 */
+	public SonosZoneGroup getGroup(String udn) {
+		return snapshot.get().getGroup(udn);
+	}
+
+	/**
+	 * @param udn
+	 * @return the UDN of the coordinator of the group the given Zone Player is
+	 *         a member of, or null if unknown
+	 */
+	public String getCoordinator(String udn) {
+		return snapshot.get().getCoordinator(udn);
+	}
+
+	/**
+	 * @param udn
+	 * @return the identifier of the household the given Zone Player belongs
+	 *         to, or null if unknown
+	 */
+	public String getHouseholdId(String udn) {
+		return snapshot.get().getHouseholdId(udn);
+	}
+
+	/**
+	 * The {@link Household} describes the Zone Groups of one Sonos household,
+	 * as reported in a single ZoneGroupState
+	 */
+	private static class Household {
+
+		private final String id;
+		private final String xml;
+		private final List<SonosZoneGroup> groups;
+		private final Set<String> members;
+
+		Household(String id, String xml, List<SonosZoneGroup> groups,
+				Set<String> members) {
+			this.id = id;
+			this.xml = xml;
+			this.groups = groups;
+			this.members = members;
+		}
+	}
+
+	/**
+	 * The {@link Snapshot} is an immutable, versioned view of the topology
+	 * with indexes from Zone Player to group, and from group to coordinator
+	 */
+	public static class Snapshot {
+
+		private final long version;
+		private final List<Household> households;
+		private final List<SonosZoneGroup> groups;
+		private final Map<String, SonosZoneGroup> groupsByMember;
+		private final Map<String, SonosZoneGroup> groupsById;
+		private final Map<String, String> householdsByMember;
+
+		Snapshot(long version, List<Household> households) {
+			this.version = version;
+			this.households = households;
+
+			List<SonosZoneGroup> groups = new ArrayList<SonosZoneGroup>();
+			Map<String, SonosZoneGroup> groupsByMember = new HashMap<String, SonosZoneGroup>();
+			Map<String, SonosZoneGroup> groupsById = new HashMap<String, SonosZoneGroup>();
+			Map<String, String> householdsByMember = new HashMap<String, String>();
+
+			for (Household household : households) {
+				for (SonosZoneGroup group : household.groups) {
+					groups.add(group);
+					groupsById.put(group.getId(), group);
+					for (String member : group.getMembers()) {
+						groupsByMember.put(member, group);
+						householdsByMember.put(member, household.id);
+					}
+				}
+			}
+
+			this.groups = Collections.unmodifiableList(groups);
+			this.groupsByMember = groupsByMember;
+			this.groupsById = groupsById;
+			this.householdsByMember = householdsByMember;
+		}
+
+		private boolean contains(String xml) {
+			for (Household household : households) {
+				if (household.xml.equals(xml)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public long getVersion() {
+			return version;
+		}
+
+		public List<SonosZoneGroup> getGroups() {
+			return groups;
+		}
+
+		/**
+		 * @param udn
+		 * @return the groups of the household the given Zone Player belongs
+		 *         to, or an empty list if unknown
+		 */
+		public List<SonosZoneGroup> getHouseholdGroups(String udn) {
+			String householdId = householdsByMember.get(udn);
+			for (Household household : households) {
+				if (household.id.equals(householdId)) {
+					return Collections.unmodifiableList(household.groups);
+				}
+			}
+			return Collections.emptyList();
+		}
+
+		public SonosZoneGroup getGroup(String udn) {
+			return groupsByMember.get(udn);
+		}
+
+		public SonosZoneGroup getGroupById(String groupId) {
+			return groupsById.get(groupId);
+		}
+
+		public String getCoordinator(String udn) {
+			SonosZoneGroup group = groupsByMember.get(udn);
+			return group != null ? group.getCoordinator() : null;
+		}
+
+		public String getGroupCoordinator(String groupId) {
+			SonosZoneGroup group = groupsById.get(groupId);
+			return group != null ? group.getCoordinator() : null;
+		}
+
+		public String getHouseholdId(String udn) {
+			return householdsByMember.get(udn);
+		}
+	}
+
+}
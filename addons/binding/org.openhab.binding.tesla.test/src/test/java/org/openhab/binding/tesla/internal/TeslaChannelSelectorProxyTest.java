@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy.TeslaChannelSelector;
+
+/**
+ * Tests cases for {@link TeslaChannelSelectorProxy}. The states are compared
+ * to those created through the valueOf method of the type of the channel,
+ * which the selectors used to call by reflection.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaChannelSelectorProxyTest {
+
+	/** Values as found in the charge_state and drive_state responses */
+	private static final List<String> SAMPLE_VALUES = Arrays.asList("87", "0", "100", "230", "-12", "200.54",
+			"37.492834", "1452617489", "Charging", "Complete", "D", "P", "ON", "OFF", "OPEN", "CLOSED",
+			"2016-01-12T17:51:29", "", "101", "true", "Undefined", null);
+
+	@Test
+	public void convertersTest() throws Exception {
+		for (TeslaChannelSelector selector : TeslaChannelSelector.values()) {
+			for (String value : SAMPLE_VALUES) {
+				assertEquals(selector + " of " + value, valueOf(selector, value), selector.getState(value));
+			}
+		}
+	}
+
+	@Test
+	public void chargeStateTest() {
+		assertEquals(new DecimalType(87), getState("battery_level", "87"));
+		assertEquals(new PercentType(90), getState("charge_limit_soc", "90"));
+		assertEquals(new StringType("Charging"), getState("charging_state", "Charging"));
+		assertEquals(new DecimalType("230"), getState("charger_voltage", "230"));
+		assertEquals(OnOffType.ON, TeslaChannelSelector.getValueSelectorFromRESTID("charge_port_door_open")
+				.getState("true", new TeslaChannelSelectorProxy(), null));
+	}
+
+	@Test
+	public void driveStateTest() {
+		assertEquals(new StringType("D"), getState("shift_state", "D"));
+		assertEquals(new DecimalType(65), getState("speed", "65"));
+		assertEquals(new DecimalType(270), getState("heading", "270"));
+	}
+
+	@Test
+	public void badInputTest() {
+		assertNull(getState("battery_level", "full"));
+		assertNull(getState("charge_limit_soc", "101"));
+		assertNull(getState("charge_limit_soc", "-1"));
+		assertNull(getState("speed", null));
+		assertNull(TeslaChannelSelector.getValueSelectorFromRESTID("charge_port_door_open").getState("maybe"));
+	}
+
+	@Test
+	public void firstMatchWinsTest() {
+		for (TeslaChannelSelector selector : TeslaChannelSelector.values()) {
+			assertSame(scanChannelID(selector.getChannelID()),
+					TeslaChannelSelector.getValueSelectorFromChannelID(selector.getChannelID()));
+			if (selector.toString() != null) {
+				assertSame(scanRESTID(selector.toString()),
+						TeslaChannelSelector.getValueSelectorFromRESTID(selector.toString()));
+			}
+		}
+
+		// several selectors share the location channel
+		assertSame(TeslaChannelSelector.ELEVATION, TeslaChannelSelector.getValueSelectorFromChannelID("location"));
+		assertSame(TeslaChannelSelector.LATITUDE, TeslaChannelSelector.getValueSelectorFromRESTID("latitude"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownRESTIDTest() {
+		TeslaChannelSelector.getValueSelectorFromRESTID("unknown");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullRESTIDTest() {
+		TeslaChannelSelector.getValueSelectorFromRESTID(null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownChannelIDTest() {
+		TeslaChannelSelector.getValueSelectorFromChannelID("unknown");
+	}
+
+	private State getState(String restID, String value) {
+		return TeslaChannelSelector.getValueSelectorFromRESTID(restID).getState(value);
+	}
+
+	/**
+	 * Creates the state as the selectors did by reflection.
+	 */
+	private State valueOf(TeslaChannelSelector selector, String value) {
+		try {
+			Method valueOf = selector.getTypeClass().getMethod("valueOf", String.class);
+			return (State) valueOf.invoke(selector.getTypeClass(), value);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	private TeslaChannelSelector scanChannelID(String channelID) {
+		for (TeslaChannelSelector selector : TeslaChannelSelector.values()) {
+			if (selector.getChannelID().equals(channelID)) {
+				return selector;
+			}
+		}
+		return null;
+	}
+
+	private TeslaChannelSelector scanRESTID(String restID) {
+		for (TeslaChannelSelector selector : TeslaChannelSelector.values()) {
+			if (restID.equals(selector.toString())) {
+				return selector;
+			}
+		}
+		return null;
+	}
+}
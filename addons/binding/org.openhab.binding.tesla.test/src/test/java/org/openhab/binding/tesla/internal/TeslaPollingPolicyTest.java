@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+import static org.junit.Assert.*;
+import static org.openhab.binding.tesla.TeslaBindingConstants.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.tesla.internal.TeslaPollingPolicy.Mode;
+import org.openhab.binding.tesla.internal.throttler.VirtualTimeProvider;
+
+/**
+ * Tests cases for {@link TeslaPollingPolicy}, on a virtual clock.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaPollingPolicyTest {
+
+	private VirtualTimeProvider timeProvider;
+	private TeslaPollingPolicy policy;
+
+	@Before
+	public void before() {
+		timeProvider = new VirtualTimeProvider(1000000);
+		policy = new TeslaPollingPolicy(timeProvider);
+	}
+
+	@Test
+	public void modeTest() {
+		assertEquals(Mode.ASLEEP, policy.getMode());
+		assertEquals(Mode.ASLEEP, policy.update(false, false, "Charging"));
+		assertEquals(Mode.DRIVING, policy.update(true, true, "Charging"));
+		assertEquals(Mode.CHARGING, policy.update(true, false, "Charging"));
+		assertEquals(Mode.PARKED, policy.update(true, false, "Complete"));
+		assertEquals(Mode.PARKED, policy.update(true, false, null));
+		assertEquals(Mode.PARKED, policy.getMode());
+	}
+
+	@Test
+	public void awakeTest() {
+		assertTrue(TeslaPollingPolicy.isAwake("online", "1234567890"));
+		assertFalse(TeslaPollingPolicy.isAwake("asleep", "1234567890"));
+		assertFalse(TeslaPollingPolicy.isAwake("online", null));
+		// the state is not interned by the JSON parser
+		assertFalse(TeslaPollingPolicy.isAwake(new String("asleep"), "1234567890"));
+	}
+
+	@Test
+	public void inMotionTest() {
+		assertTrue(TeslaPollingPolicy.isInMotion("30", "D"));
+		assertTrue(TeslaPollingPolicy.isInMotion("5", "R"));
+		assertFalse(TeslaPollingPolicy.isInMotion("0", "P"));
+		assertFalse(TeslaPollingPolicy.isInMotion("Undefined", "D"));
+		assertFalse(TeslaPollingPolicy.isInMotion("0", "Undefined"));
+		assertFalse(TeslaPollingPolicy.isInMotion(null, "D"));
+		assertFalse(TeslaPollingPolicy.isInMotion("30", null));
+	}
+
+	@Test
+	public void intervalTest() {
+		policy.update(false, false, null);
+		assertEquals(60000, policy.getInterval(VEHICLES));
+		assertEquals(TeslaPollingPolicy.NEVER, policy.getInterval(TESLA_DRIVE_STATE));
+		assertEquals(TeslaPollingPolicy.NEVER, policy.getInterval(TESLA_CHARGE_STATE));
+
+		policy.update(true, true, null);
+		assertEquals(10000, policy.getInterval(TESLA_DRIVE_STATE));
+		assertEquals(300000, policy.getInterval(TESLA_CHARGE_STATE));
+
+		policy.update(true, false, "Charging");
+		assertEquals(300000, policy.getInterval(TESLA_DRIVE_STATE));
+		assertEquals(15000, policy.getInterval(TESLA_CHARGE_STATE));
+
+		assertEquals(TeslaPollingPolicy.NEVER, policy.getInterval("unknown"));
+		assertEquals(7, policy.getSchedule().size());
+	}
+
+	@Test
+	public void asleepTest() {
+		policy.update(false, false, null);
+
+		// only the list of vehicles, which does not wake the vehicle
+		assertEquals(Collections.singletonList(VEHICLES), policy.getDueEndpoints());
+		assertTrue(policy.getDueEndpoints().isEmpty());
+
+		timeProvider.advance(59999);
+		assertTrue(policy.getDueEndpoints().isEmpty());
+		timeProvider.advance(1);
+		assertEquals(Collections.singletonList(VEHICLES), policy.getDueEndpoints());
+	}
+
+	@Test
+	public void drivingTest() {
+		policy.update(true, true, null);
+
+		assertEquals(Arrays.asList(VEHICLES, TESLA_DRIVE_STATE, TESLA_VEHICLE_STATE, TESLA_CHARGE_STATE,
+				TESLA_CLIMATE_STATE, TESLA_GUI_STATE, TESLA_MOBILE_ENABLED_STATE), policy.getDueEndpoints());
+
+		timeProvider.advance(10000);
+		assertEquals(Collections.singletonList(TESLA_DRIVE_STATE), policy.getDueEndpoints());
+
+		timeProvider.advance(50000);
+		assertEquals(Arrays.asList(TESLA_DRIVE_STATE, TESLA_VEHICLE_STATE, TESLA_CLIMATE_STATE),
+				policy.getDueEndpoints());
+
+		assertEquals(Long.valueOf(3), policy.getRequestCounts().get(TESLA_DRIVE_STATE));
+		assertEquals(Long.valueOf(1), policy.getRequestCounts().get(TESLA_CHARGE_STATE));
+	}
+
+	@Test
+	public void modeChangeTest() {
+		policy.update(true, false, null);
+		policy.getDueEndpoints();
+
+		// the new mode applies to the time since the last poll
+		timeProvider.advance(15000);
+		assertTrue(policy.getDueEndpoints().isEmpty());
+		policy.update(true, false, "Charging");
+		assertEquals(Collections.singletonList(TESLA_CHARGE_STATE), policy.getDueEndpoints());
+	}
+
+	@Test
+	public void postponeTest() {
+		policy.update(true, true, null);
+		policy.getDueEndpoints();
+		timeProvider.advance(10000);
+		assertEquals(Collections.singletonList(TESLA_DRIVE_STATE), policy.getDueEndpoints());
+		assertEquals(Long.valueOf(2), policy.getRequestCounts().get(TESLA_DRIVE_STATE));
+
+		// the request failed, it is due again and not counted
+		policy.postpone(TESLA_DRIVE_STATE);
+		assertEquals(Long.valueOf(1), policy.getRequestCounts().get(TESLA_DRIVE_STATE));
+		assertEquals(Collections.singletonList(TESLA_DRIVE_STATE), policy.getDueEndpoints());
+		assertEquals(Long.valueOf(2), policy.getRequestCounts().get(TESLA_DRIVE_STATE));
+
+		// postponing twice does not roll back twice
+		policy.postpone(TESLA_DRIVE_STATE);
+		policy.postpone(TESLA_DRIVE_STATE);
+		assertEquals(Long.valueOf(1), policy.getRequestCounts().get(TESLA_DRIVE_STATE));
+	}
+
+	@Test
+	public void resetTest() {
+		policy.update(true, false, null);
+		int endpoints = policy.getDueEndpoints().size();
+		assertTrue(policy.getDueEndpoints().isEmpty());
+
+		policy.reset();
+		assertEquals(endpoints, policy.getDueEndpoints().size());
+	}
+}
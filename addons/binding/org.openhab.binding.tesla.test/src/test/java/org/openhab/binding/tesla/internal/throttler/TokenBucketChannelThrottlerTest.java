@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal.throttler;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link TokenBucketChannelThrottler}, on a virtual clock.
+ *
+ * @author agent - Initial contribution
+ */
+public class TokenBucketChannelThrottlerTest {
+
+	private static final Runnable NOTHING = new Runnable() {
+		@Override
+		public void run() {
+		}
+	};
+
+	private VirtualTimeProvider clock;
+	private ScheduledExecutorService scheduler;
+	private TokenBucketChannelThrottler throttler;
+
+	@Before
+	public void before() {
+		clock = new VirtualTimeProvider(1000000);
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+
+		TokenBucket total = new TokenBucket(4, 1, TimeUnit.MINUTES);
+		Map<Object, TokenBucket> channels = new HashMap<Object, TokenBucket>();
+		channels.put("data", new TokenBucket(3, 1, TimeUnit.MINUTES, total));
+		channels.put("command", new TokenBucket(2, 1, TimeUnit.MINUTES, total));
+
+		throttler = new TokenBucketChannelThrottler(total, scheduler, channels, clock, 2);
+	}
+
+	@After
+	public void after() {
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	public void tryAcquireTest() {
+		assertTrue(throttler.tryAcquire("data"));
+		assertTrue(throttler.tryAcquire("data"));
+		assertTrue(throttler.tryAcquire("command"));
+		assertTrue(throttler.tryAcquire("data"));
+
+		// the total rate is used up
+		assertFalse(throttler.tryAcquire("command"));
+		assertFalse(throttler.tryAcquire(null));
+
+		clock.advance(15000);
+		assertFalse(throttler.tryAcquire("data"));
+		assertTrue(throttler.tryAcquire("command"));
+	}
+
+	@Test
+	public void trySubmitTest() throws Exception {
+		assertNotNull(throttler.trySubmit("command", NOTHING));
+		Future<?> task = throttler.trySubmit("command", NOTHING);
+		assertNotNull(task);
+		task.get(1, TimeUnit.SECONDS);
+		assertTrue(task.isDone());
+
+		assertNull(throttler.trySubmit("command", NOTHING));
+		assertEquals(2, throttler.getSubmittedTasks());
+	}
+
+	@Test
+	public void submitTest() {
+		assertTrue(throttler.tryAcquire("command"));
+		assertTrue(throttler.tryAcquire("command"));
+
+		// the tasks wait for their tokens, one every 30 seconds
+		assertNotNull(throttler.submit("command", NOTHING));
+		assertNotNull(throttler.submit("command", NOTHING));
+		assertEquals(45000, throttler.getAverageDelay());
+
+		// until too many are pending
+		assertEquals(2, throttler.getPendingTasks());
+		assertNull(throttler.submit("command", NOTHING));
+		assertEquals(1, throttler.getRejectedTasks());
+	}
+}
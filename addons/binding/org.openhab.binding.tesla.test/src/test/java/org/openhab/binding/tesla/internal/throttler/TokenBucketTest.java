@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal.throttler;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests cases for {@link TokenBucket}, on a virtual clock.
+ *
+ * @author agent - Initial contribution
+ */
+public class TokenBucketTest {
+
+	private VirtualTimeProvider clock;
+
+	@Before
+	public void before() {
+		clock = new VirtualTimeProvider(1000000);
+	}
+
+	@Test
+	public void burstTest() {
+		TokenBucket bucket = new TokenBucket(10, 10, TimeUnit.SECONDS);
+		long now = clock.getCurrentTimeInMillis();
+
+		assertEquals(10, bucket.getAvailableTokens(now));
+		for (int i = 0; i < 10; i++) {
+			assertTrue("call " + i, bucket.tryAcquire(now));
+		}
+		assertFalse(bucket.tryAcquire(now));
+		assertEquals(0, bucket.getAvailableTokens(now));
+	}
+
+	@Test
+	public void steadyRateTest() {
+		TokenBucket bucket = new TokenBucket(10, 10, TimeUnit.SECONDS);
+		while (bucket.tryAcquire(clock.getCurrentTimeInMillis())) {
+		}
+
+		// once empty, one token comes back every second
+		for (int i = 0; i < 20; i++) {
+			clock.advance(999);
+			assertFalse(bucket.tryAcquire(clock.getCurrentTimeInMillis()));
+			clock.advance(1);
+			assertTrue(bucket.tryAcquire(clock.getCurrentTimeInMillis()));
+			assertFalse(bucket.tryAcquire(clock.getCurrentTimeInMillis()));
+		}
+
+		// an idle bucket fills up to its burst, and no further
+		clock.advance(60000);
+		assertEquals(10, bucket.getAvailableTokens(clock.getCurrentTimeInMillis()));
+	}
+
+	@Test
+	public void roundingTest() {
+		// 3 calls in 10 seconds are 3334 ms apart, rounded up so that the rate
+		// is never exceeded, and still make a burst of 3
+		TokenBucket bucket = new TokenBucket(3, 10, TimeUnit.SECONDS);
+		long now = clock.getCurrentTimeInMillis();
+		assertEquals(3, bucket.getAvailableTokens(now));
+		while (bucket.tryAcquire(now)) {
+		}
+		assertFalse(bucket.tryAcquire(now + 3333));
+		assertTrue(bucket.tryAcquire(now + 3334));
+	}
+
+	@Test
+	public void parentExhaustionTest() {
+		TokenBucket parent = new TokenBucket(3, 9, TimeUnit.SECONDS);
+		TokenBucket child = new TokenBucket(10, 10, TimeUnit.SECONDS, parent);
+		TokenBucket sibling = new TokenBucket(10, 10, TimeUnit.SECONDS, parent);
+		long now = clock.getCurrentTimeInMillis();
+
+		assertTrue(child.tryAcquire(now));
+		assertTrue(sibling.tryAcquire(now));
+		assertTrue(child.tryAcquire(now));
+		assertEquals(0, parent.getAvailableTokens(now));
+
+		// the parent refuses, the child gets its token back
+		assertFalse(child.tryAcquire(now));
+		assertFalse(sibling.tryAcquire(now));
+		assertEquals(8, child.getAvailableTokens(now));
+		assertEquals(9, sibling.getAvailableTokens(now));
+
+		// calls on the parent are limited by the parent alone
+		clock.advance(3000);
+		now = clock.getCurrentTimeInMillis();
+		assertTrue(parent.tryAcquire(now));
+		assertFalse(child.tryAcquire(now));
+		assertEquals(10, child.getAvailableTokens(now));
+	}
+
+	@Test
+	public void childExhaustionTest() {
+		TokenBucket parent = new TokenBucket(10, 10, TimeUnit.SECONDS);
+		TokenBucket child = new TokenBucket(2, 10, TimeUnit.SECONDS, parent);
+		long now = clock.getCurrentTimeInMillis();
+
+		assertTrue(child.tryAcquire(now));
+		assertTrue(child.tryAcquire(now));
+		assertFalse(child.tryAcquire(now));
+
+		// the parent was only charged for the calls that were allowed
+		assertEquals(8, parent.getAvailableTokens(now));
+	}
+
+	@Test
+	public void reserveOrderTest() {
+		TokenBucket parent = new TokenBucket(2, 10, TimeUnit.SECONDS);
+		TokenBucket child = new TokenBucket(10, 10, TimeUnit.SECONDS, parent);
+		long now = clock.getCurrentTimeInMillis();
+
+		assertEquals(now, child.reserve(now));
+		assertEquals(now, child.reserve(now));
+		assertEquals(now + 5000, child.reserve(now));
+		assertEquals(now + 10000, child.reserve(now));
+		assertEquals(now + 15000, parent.reserve(now));
+		assertEquals(now + 20000, child.reserve(now));
+
+		// the child was charged at the times the parent scheduled the calls,
+		// the last one 1 second before it is full again
+		assertEquals(9, child.getAvailableTokens(now + 20000));
+		assertEquals(10, child.getAvailableTokens(now + 21000));
+	}
+
+	@Test
+	public void reserveChildTest() {
+		TokenBucket parent = new TokenBucket(10, 10, TimeUnit.SECONDS);
+		TokenBucket child = new TokenBucket(2, 10, TimeUnit.SECONDS, parent);
+		long now = clock.getCurrentTimeInMillis();
+
+		assertEquals(now, child.reserve(now));
+		assertEquals(now, child.reserve(now));
+		assertEquals(now + 5000, child.reserve(now));
+
+		// the parent was charged at the time the child scheduled the call
+		assertEquals(9, parent.getAvailableTokens(now + 5000));
+		assertEquals(10, parent.getAvailableTokens(now + 6000));
+	}
+
+	@Test
+	public void concurrentReserveTest() throws InterruptedException {
+		final TokenBucket parent = new TokenBucket(5, 10, TimeUnit.SECONDS);
+		final long now = clock.getCurrentTimeInMillis();
+		final List<Long> callTimes = Collections.synchronizedList(new ArrayList<Long>());
+
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final TokenBucket child = new TokenBucket(10, 10, TimeUnit.SECONDS, parent);
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < 25; i++) {
+						callTimes.add(child.reserve(now));
+					}
+				}
+			});
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// a burst of 5 calls, then one call every 2 seconds at most
+		Collections.sort(callTimes);
+		assertEquals(100, callTimes.size());
+		for (int i = 0; i < callTimes.size(); i++) {
+			assertTrue("call " + i, callTimes.get(i) >= now + Math.max(i - 4, 0) * 2000);
+		}
+	}
+}
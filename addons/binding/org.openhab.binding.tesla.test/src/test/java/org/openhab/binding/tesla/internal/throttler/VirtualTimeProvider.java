@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal.throttler;
+
+/**
+ * A {@link TimeProvider} whose time only moves when a test advances it.
+ *
+ * @author agent - Initial contribution
+ */
+public class VirtualTimeProvider implements TimeProvider {
+
+	private volatile long time;
+
+	public VirtualTimeProvider(long time) {
+		this.time = time;
+	}
+
+	@Override
+	public long getCurrentTimeInMillis() {
+		return time;
+	}
+
+	public void advance(long millis) {
+		time += millis;
+	}
+}
@@ -44,6 +44,7 @@ public class TeslaBindingConstants {
 	public static final String VEHICLES = "vehicles";
 	public static final String COMMAND_PATH = "command/{cmd}";
 	public static final String DATA_REQUEST_PATH = "data_request/{cmd}";
+	public static final String PARAMETER_PATH = "{cmd}";
 	public static final String VEHICLE_ID_PATH = "/{vid}/";
 
 	// Tesla REST API commands
@@ -78,6 +79,8 @@ public class TeslaBindingConstants {
 	// List of all Thing Type UIDs
 	public final static ThingTypeUID THING_TYPE_MODELS = new ThingTypeUID(
 			BINDING_ID, "models");
+	public final static ThingTypeUID THING_TYPE_ACCOUNT = new ThingTypeUID(
+			BINDING_ID, "account");
 
 	public enum EventKeys {
 		timestamp, odometer, speed, soc, elevation, est_heading, est_lat, est_lng, power, shift_state, range, est_range, heading
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.handler;
+
+import static org.openhab.binding.tesla.TeslaBindingConstants.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.types.Command;
+import org.openhab.binding.tesla.internal.TeslaClient;
+import org.openhab.binding.tesla.internal.protocol.Vehicle;
+import org.openhab.binding.tesla.internal.throttler.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TeslaAccountHandler} is responsible for a Tesla account, shared
+ * by the {@link TeslaHandler}s of its vehicles. It holds the access token of
+ * the account, renewing it when the token is refused, and the list of
+ * vehicles, which is retrieved at most once per VEHICLE_LIST_TTL for all of
+ * the vehicles. It also holds the request rates of the account.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaAccountHandler extends BaseBridgeHandler {
+
+	private Logger logger = LoggerFactory.getLogger(TeslaAccountHandler.class);
+
+	public static final int VEHICLE_LIST_TTL = 10000;
+
+	protected TeslaClient teslaClient;
+	protected TokenBucket accountRate;
+
+	private final Object vehiclesLock = new Object();
+	private volatile Vehicle[] vehicles;
+	private volatile long vehiclesTime = 0;
+
+	private final AtomicLong vehicleListQueries = new AtomicLong();
+	private final AtomicLong vehicleListCacheHits = new AtomicLong();
+	private final AtomicLong authentications = new AtomicLong();
+
+	public TeslaAccountHandler(Bridge bridge) {
+		super(bridge);
+	}
+
+	@Override
+	public void initialize() {
+
+		if (teslaClient == null) {
+			teslaClient = TeslaClient.acquire(getUsername());
+		}
+		accountRate = new TokenBucket(200, 10, TimeUnit.MINUTES);
+
+		ThingStatusDetail authenticationResult = authenticate();
+		if (authenticationResult != ThingStatusDetail.NONE) {
+			updateStatus(ThingStatus.OFFLINE, authenticationResult);
+		} else {
+			updateStatus(ThingStatus.ONLINE);
+		}
+	}
+
+	@Override
+	public void dispose() {
+		vehicles = null;
+		if (teslaClient != null) {
+			teslaClient.release();
+			teslaClient = null;
+		}
+	}
+
+	@Override
+	public void handleCommand(ChannelUID channelUID, Command command) {
+		// the account has no channels
+	}
+
+	public String getUsername() {
+		return (String) getConfig().get(USERNAME);
+	}
+
+	/**
+	 * @return the rates shared by all vehicles of the account
+	 */
+	public TokenBucket getAccountRate() {
+		return accountRate;
+	}
+
+	/**
+	 * Returns the vehicles of the account, retrieving the list if the cached
+	 * one is older than VEHICLE_LIST_TTL.
+	 *
+	 * @return the vehicles, or <code>null</code> if the list could not be
+	 *         retrieved
+	 */
+	public Vehicle[] getVehicles() {
+		Vehicle[] currentVehicles = vehicles;
+		if (currentVehicles != null
+				&& System.currentTimeMillis() - vehiclesTime < VEHICLE_LIST_TTL) {
+			vehicleListCacheHits.incrementAndGet();
+			return currentVehicles;
+		}
+
+		synchronized (vehiclesLock) {
+			// another vehicle may have retrieved the list in the meantime
+			currentVehicles = vehicles;
+			if (currentVehicles != null
+					&& System.currentTimeMillis() - vehiclesTime < VEHICLE_LIST_TTL) {
+				vehicleListCacheHits.incrementAndGet();
+				return currentVehicles;
+			}
+
+			TeslaClient client = teslaClient;
+			if (client == null) {
+				return null;
+			}
+
+			vehicleListQueries.incrementAndGet();
+			currentVehicles = client.queryVehicles();
+			if (currentVehicles == null) {
+				// the access token may have expired
+				logger.debug(
+						"Unable to retrieve the vehicles of account '{}', renewing the access token",
+						getUsername());
+				ThingStatusDetail authenticationResult = authenticate();
+				if (authenticationResult == ThingStatusDetail.NONE) {
+					updateStatus(ThingStatus.ONLINE);
+					vehicleListQueries.incrementAndGet();
+					currentVehicles = client.queryVehicles();
+				} else {
+					updateStatus(ThingStatus.OFFLINE, authenticationResult);
+				}
+			}
+
+			if (currentVehicles != null) {
+				vehicles = currentVehicles;
+				vehiclesTime = System.currentTimeMillis();
+			}
+			return currentVehicles;
+		}
+	}
+
+	/**
+	 * @return the number of times the list of vehicles was retrieved
+	 */
+	public long getVehicleListQueries() {
+		return vehicleListQueries.get();
+	}
+
+	/**
+	 * @return the number of times the cached list of vehicles was used
+	 */
+	public long getVehicleListCacheHits() {
+		return vehicleListCacheHits.get();
+	}
+
+	/**
+	 * @return the number of times an access token was requested
+	 */
+	public long getAuthentications() {
+		return authentications.get();
+	}
+
+	protected ThingStatusDetail authenticate() {
+		authentications.incrementAndGet();
+		return teslaClient.authenticate(getUsername(),
+				(String) getConfig().get(PASSWORD));
+	}
+
+}
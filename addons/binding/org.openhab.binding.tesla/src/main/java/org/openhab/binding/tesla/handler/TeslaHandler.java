@@ -13,21 +13,18 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
-import javax.ws.rs.client.ClientRequestContext;
-import javax.ws.rs.client.ClientRequestFilter;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.commons.lang.StringUtils;
@@ -36,31 +33,36 @@ import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.PercentType;
 import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
+import org.openhab.binding.tesla.internal.ChannelStateCache;
 import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy;
+import org.openhab.binding.tesla.internal.TeslaClient;
 import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy.TeslaChannelSelector;
+import org.openhab.binding.tesla.internal.TeslaPollingPolicy;
 import org.openhab.binding.tesla.internal.protocol.ChargeState;
 import org.openhab.binding.tesla.internal.protocol.ClimateState;
 import org.openhab.binding.tesla.internal.protocol.DriveState;
 import org.openhab.binding.tesla.internal.protocol.GUIState;
-import org.openhab.binding.tesla.internal.protocol.TokenRequest;
 import org.openhab.binding.tesla.internal.protocol.Vehicle;
 import org.openhab.binding.tesla.internal.protocol.VehicleState;
-import org.openhab.binding.tesla.internal.throttler.QueueChannelThrottler;
-import org.openhab.binding.tesla.internal.throttler.Rate;
+import org.openhab.binding.tesla.internal.throttler.TokenBucket;
+import org.openhab.binding.tesla.internal.throttler.TokenBucketChannelThrottler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The {@link TeslaHandler} is responsible for handling commands, which are sent
@@ -71,9 +73,28 @@ import com.google.gson.JsonParser;
 public class TeslaHandler extends BaseThingHandler {
 
 	public static final int EVENT_REFRESH_INTERVAL = 200;
-	public static final int FAST_STATUS_REFRESH_INTERVAL = 15000;
-	public static final int SLOW_STATUS_REFRESH_INTERVAL = 60000;
+	public static final int POLLING_INTERVAL = 1000;
 	public static final int MINIMUM_EVENT_INTERVAL = 15000;
+	public static final int EVENT_RETRY_INTERVAL = 5000;
+
+	/** The values requested from the event stream */
+	private static final String EVENT_VALUES = StringUtils.join(
+			EventKeys.values(), ',', 1, EventKeys.values().length);
+
+	/** The selectors of the event values, in the order of the EventKeys */
+	protected static final TeslaChannelSelector[] EVENT_SELECTORS = new TeslaChannelSelector[EventKeys
+			.values().length];
+
+	static {
+		for (EventKeys key : EventKeys.values()) {
+			try {
+				EVENT_SELECTORS[key.ordinal()] = TeslaChannelSelector
+						.getValueSelectorFromRESTID(key.toString());
+			} catch (IllegalArgumentException e) {
+				// the value is not mapped to a channel
+			}
+		}
+	}
 
 	private Logger logger = LoggerFactory.getLogger(TeslaHandler.class);
 
@@ -85,105 +106,126 @@ public class TeslaHandler extends BaseThingHandler {
 	protected VehicleState vehicleState;
 	protected ChargeState chargeState;
 	protected ClimateState climateState;
-	protected String accessToken;
 
 	// REST Client API variables
-	protected Client teslaClient = ClientBuilder.newClient();
-	protected Client eventClient;
-	protected WebTarget teslaTarget = teslaClient.target(TESLA_OWNERS_URI);
-	protected WebTarget tokenTarget = teslaTarget.path(TESLA_ACCESS_TOKEN_URI);
-	protected WebTarget vehiclesTarget = teslaTarget.path(API_VERSION).path(
-			VEHICLES);
-	protected WebTarget vehicleTarget = vehiclesTarget.path(VEHICLE_ID_PATH);
-	protected WebTarget dataRequestTarget = vehicleTarget
-			.path(DATA_REQUEST_PATH);
-	protected WebTarget commandTarget = vehicleTarget.path(COMMAND_PATH);
-	protected WebTarget eventTarget;
+	private TeslaAccountHandler accountHandler;
+	protected volatile String username;
+	protected TeslaClient teslaClient;
+	protected WebTarget vehicleTarget;
+	protected WebTarget dataRequestTarget;
+	protected WebTarget commandTarget;
+	protected WebTarget parameterTarget;
+	private Map<WebTarget, Map<String, WebTarget>> resolvedTargets = new ConcurrentHashMap<WebTarget, Map<String, WebTarget>>();
 
 	// Threading and Job related variables
-	protected ScheduledFuture<?> eventJob;
-	protected ScheduledFuture<?> fastStateJob;
-	protected ScheduledFuture<?> slowStateJob;
-	protected QueueChannelThrottler stateThrottler;
-	protected Response eventResponse;
-	protected BufferedReader eventBufferedReader;
-	protected InputStreamReader eventInputStreamReader;
+	protected volatile EventReader eventReader;
+	private final Object eventReaderLock = new Object();
+	protected ScheduledFuture<?> pollingJob;
+	protected TeslaPollingPolicy pollingPolicy = new TeslaPollingPolicy();
+	protected TokenBucketChannelThrottler stateThrottler;
 	protected long lastEventSystemTime = 0;
 	protected String lastEventTimeStamp = "";
 
+	// Event stream metrics
+	private final AtomicLong receivedEvents = new AtomicLong();
+	private final AtomicLong totalEventLag = new AtomicLong();
+	private volatile long lastEventLag = 0;
+	private volatile long eventStreamStartTime = 0;
+	private volatile long eventStreamEvents = 0;
+
 	protected Gson gson = new Gson();
 	protected TeslaChannelSelectorProxy teslaChannelSelectorProxy = new TeslaChannelSelectorProxy();
 	private JsonParser parser = new JsonParser();
+	private final ChannelStateCache channelStateCache;
+	private Map<ChannelUID, State> publishedStates = new ConcurrentHashMap<ChannelUID, State>();
 
 	public TeslaHandler(Thing thing) {
 		super(thing);
-
+		channelStateCache = new ChannelStateCache(thing.getUID());
 	}
 
 	@Override
 	public void initialize() {
 
-		ThingStatusDetail authenticationResult = authenticate(
-				(String) getConfig().get(USERNAME),
-				(String) getConfig().get(PASSWORD));
-
-		if (authenticationResult != ThingStatusDetail.NONE) {
-			updateStatus(ThingStatus.OFFLINE, authenticationResult);
-		} else {
+		publishedStates.clear();
 
-			// get a list of vehicles
-			Response response = vehiclesTarget
-					.request(MediaType.APPLICATION_JSON_TYPE)
-					.header("Authorization", "Bearer " + accessToken).get();
-
-			if (response != null && response.getStatus() == 200
-					&& response.hasEntity()) {
-
-				if ((vehicle = queryVehicle()) != null) {
+		TeslaAccountHandler account = getAccountHandler();
+		if (account == null && getBridge() != null) {
+			// wait for the account to be initialized
+			updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.BRIDGE_OFFLINE);
+			return;
+		}
 
-					logger.debug(
-							"Found the vehicle with VIN '{}' in the list of vehicles you own",
-							(String) getConfig().get(VIN));
-					updateStatus(ThingStatus.ONLINE);
-
-					if (eventJob == null || eventJob.isCancelled()) {
-						eventJob = scheduler.scheduleAtFixedRate(eventRunnable,
-								0, EVENT_REFRESH_INTERVAL,
-								TimeUnit.MILLISECONDS);
-					}
+		// vehicles of an account need no username of their own
+		username = account != null ? account.getUsername()
+				: (String) getConfig().get(USERNAME);
+
+		if (teslaClient == null) {
+			// share the client of the account, if there is one
+			teslaClient = TeslaClient.acquire(username);
+			vehicleTarget = teslaClient.getVehicleTarget();
+			dataRequestTarget = vehicleTarget.path(DATA_REQUEST_PATH);
+			commandTarget = vehicleTarget.path(COMMAND_PATH);
+			parameterTarget = vehicleTarget.path(PARAMETER_PATH);
+			resolvedTargets.clear();
+		}
 
-					Map<Object, Rate> channels = new HashMap<Object, Rate>();
-					channels.put(TESLA_DATA_THROTTLE, new Rate(10, 10,
-							TimeUnit.SECONDS));
-					channels.put(TESLA_COMMAND_THROTTLE, new Rate(20, 1,
-							TimeUnit.MINUTES));
-
-					Rate firstRate = new Rate(20, 1, TimeUnit.MINUTES);
-					Rate secondRate = new Rate(200, 10, TimeUnit.MINUTES);
-					stateThrottler = new QueueChannelThrottler(firstRate,
-							scheduler, channels);
-					stateThrottler.addRate(secondRate);
-
-					if (fastStateJob == null || fastStateJob.isCancelled()) {
-						fastStateJob = scheduler.scheduleAtFixedRate(
-								fastStateRunnable, 0,
-								FAST_STATUS_REFRESH_INTERVAL,
-								TimeUnit.MILLISECONDS);
-					}
+		ThingStatusDetail authenticationResult;
+		if (account != null) {
+			// the account holds the access token
+			authenticationResult = account.getThing().getStatus() == ThingStatus.ONLINE ? ThingStatusDetail.NONE
+					: ThingStatusDetail.BRIDGE_OFFLINE;
+		} else {
+			authenticationResult = authenticate(username,
+					(String) getConfig().get(PASSWORD));
+		}
 
-					if (slowStateJob == null || slowStateJob.isCancelled()) {
-						slowStateJob = scheduler.scheduleAtFixedRate(
-								slowStateRunnable, 0,
-								SLOW_STATUS_REFRESH_INTERVAL,
-								TimeUnit.MILLISECONDS);
+		if (authenticationResult != ThingStatusDetail.NONE) {
+			updateStatus(ThingStatus.OFFLINE, authenticationResult);
+		} else {
+			if ((vehicle = queryVehicle()) != null) {
+
+				logger.debug(
+						"Found the vehicle with VIN '{}' in the list of vehicles you own",
+						(String) getConfig().get(VIN));
+				updateStatus(ThingStatus.ONLINE);
+
+				synchronized (eventReaderLock) {
+					// a reader that is still stopping leaves on its own
+					if (eventReader == null || eventReader.stopped) {
+						eventReader = new EventReader();
+						eventReader.start();
 					}
+				}
 
-				} else {
-					logger.warn(
-							"Unable to find the vehicle with VIN '{}' in the list of vehicles you own",
-							(String) getConfig().get(VIN));
-					updateStatus(ThingStatus.OFFLINE);
+				// the rates of the account are shared by its vehicles
+				TokenBucket secondRate = account != null ? account
+						.getAccountRate() : new TokenBucket(200, 10,
+						TimeUnit.MINUTES);
+				TokenBucket firstRate = new TokenBucket(20, 1,
+						TimeUnit.MINUTES, secondRate);
+
+				Map<Object, TokenBucket> channels = new HashMap<Object, TokenBucket>();
+				channels.put(TESLA_DATA_THROTTLE, new TokenBucket(10, 10,
+						TimeUnit.SECONDS, firstRate));
+				channels.put(TESLA_COMMAND_THROTTLE, new TokenBucket(20, 1,
+						TimeUnit.MINUTES, firstRate));
+
+				stateThrottler = new TokenBucketChannelThrottler(firstRate,
+						scheduler, channels);
+
+				if (pollingJob == null || pollingJob.isCancelled()) {
+					pollingPolicy.reset();
+					pollingJob = scheduler.scheduleWithFixedDelay(
+							pollingRunnable, 0, POLLING_INTERVAL,
+							TimeUnit.MILLISECONDS);
 				}
+
+			} else {
+				logger.warn(
+						"Unable to find the vehicle with VIN '{}' in the list of vehicles you own",
+						(String) getConfig().get(VIN));
+				updateStatus(ThingStatus.OFFLINE);
 			}
 		}
 	}
@@ -191,19 +233,20 @@ public class TeslaHandler extends BaseThingHandler {
 	@Override
 	public void dispose() {
 
-		if (eventJob != null && !eventJob.isCancelled()) {
-			eventJob.cancel(true);
-			eventJob = null;
+		EventReader reader = eventReader;
+		if (reader != null) {
+			// the reader clears eventReader once it has stopped
+			reader.shutdown();
 		}
 
-		if (fastStateJob != null && !fastStateJob.isCancelled()) {
-			fastStateJob.cancel(true);
-			fastStateJob = null;
+		if (pollingJob != null && !pollingJob.isCancelled()) {
+			pollingJob.cancel(true);
+			pollingJob = null;
 		}
 
-		if (slowStateJob != null && !slowStateJob.isCancelled()) {
-			slowStateJob.cancel(true);
-			slowStateJob = null;
+		if (teslaClient != null) {
+			teslaClient.release();
+			teslaClient = null;
 		}
 	}
 
@@ -381,9 +424,36 @@ public class TeslaHandler extends BaseThingHandler {
 		requestData(command, null);
 	}
 
+	protected boolean pollData(String command) {
+		Request request = new Request(command, null, dataRequestTarget);
+		return stateThrottler != null
+				&& stateThrottler.trySubmit(TESLA_DATA_THROTTLE, request) != null;
+	}
+
 	public void queryVehicle(String parameter) {
-		WebTarget target = vehicleTarget.path(parameter);
-		sendCommand(parameter, null, target);
+		sendCommand(parameter, null, parameterTarget);
+	}
+
+	/**
+	 * Returns the target of a request to the vehicle, resolving its templates
+	 * only once.
+	 */
+	protected WebTarget resolveTarget(WebTarget target, String command) {
+		Map<String, WebTarget> targets = resolvedTargets.get(target);
+		if (targets == null) {
+			targets = new ConcurrentHashMap<String, WebTarget>();
+			resolvedTargets.put(target, targets);
+		}
+		String key = command != null ? command : "";
+		WebTarget resolvedTarget = targets.get(key);
+		if (resolvedTarget == null) {
+			resolvedTarget = target.resolveTemplate("vid", vehicle.id);
+			if (command != null) {
+				resolvedTarget = resolvedTarget.resolveTemplate("cmd", command);
+			}
+			targets.put(key, resolvedTarget);
+		}
+		return resolvedTarget;
 	}
 
 	protected String invokeAndParse(String command, String payLoad,
@@ -392,35 +462,11 @@ public class TeslaHandler extends BaseThingHandler {
 			Response response;
 
 			if (payLoad != null) {
-				if (command != null) {
-					response = target
-							.resolveTemplate("cmd", command)
-							.resolveTemplate("vid", vehicle.id)
-							.request()
-							.header("Authorization", "Bearer " + accessToken)
-							.post(Entity.entity(payLoad,
-									MediaType.APPLICATION_JSON_TYPE));
-				} else {
-					response = target
-							.resolveTemplate("vid", vehicle.id)
-							.request()
-							.header("Authorization", "Bearer " + accessToken)
-							.post(Entity.entity(payLoad,
-									MediaType.APPLICATION_JSON_TYPE));
-				}
+				response = resolveTarget(target, command).request().post(
+						Entity.entity(payLoad, MediaType.APPLICATION_JSON_TYPE));
 			} else {
-				if (command != null) {
-					response = target.resolveTemplate("cmd", command)
-							.resolveTemplate("vid", vehicle.id)
-							.request(MediaType.APPLICATION_JSON_TYPE)
-							.header("Authorization", "Bearer " + accessToken)
-							.get();
-				} else {
-					response = target.resolveTemplate("vid", vehicle.id)
-							.request(MediaType.APPLICATION_JSON_TYPE)
-							.header("Authorization", "Bearer " + accessToken)
-							.get();
-				}
+				response = resolveTarget(target, command).request(
+						MediaType.APPLICATION_JSON_TYPE).get();
 			}
 
 			JsonParser parser = new JsonParser();
@@ -442,6 +488,10 @@ public class TeslaHandler extends BaseThingHandler {
 						(response != null) ? response.getStatus() : "",
 						(response != null) ? response.getStatusInfo()
 								: "No Response");
+				if (response != null) {
+					// release the connection
+					response.close();
+				}
 			}
 		}
 
@@ -451,133 +501,164 @@ public class TeslaHandler extends BaseThingHandler {
 
 	public void parseAndUpdate(String request, String payLoad, String result) {
 
-		JsonParser parser = new JsonParser();
-		JsonObject jsonObject = null;
+		if (request == null || result == null || result.equals("null")) {
+			return;
+		}
 
 		try {
-			if (request != null && result != null && result != "null") {
-				// first, update state objects
-				switch (request) {
-				case TESLA_DRIVE_STATE: {
-					driveState = gson.fromJson(result, DriveState.class);
-					break;
-				}
-				case TESLA_GUI_STATE: {
-					guiState = gson.fromJson(result, GUIState.class);
-					break;
-				}
-				case TESLA_VEHICLE_STATE: {
-					vehicleState = gson.fromJson(result, VehicleState.class);
-					break;
+			// read the response once, into a tree for the state objects and
+			// into the values of its fields for the channels
+			JsonObject jsonObject = new JsonObject();
+			Map<String, String> values = new LinkedHashMap<String, String>();
+			if (request.equals(TESLA_MOBILE_ENABLED_STATE)) {
+				// this response is not a JSON object
+				jsonObject.addProperty(TESLA_MOBILE_ENABLED_STATE, result);
+				values.put(TESLA_MOBILE_ENABLED_STATE, result);
+			} else {
+				readResponse(result, jsonObject, values);
+			}
+
+			// first, update state objects
+			switch (request) {
+			case TESLA_DRIVE_STATE: {
+				driveState = gson.fromJson(jsonObject, DriveState.class);
+				break;
+			}
+			case TESLA_GUI_STATE: {
+				guiState = gson.fromJson(jsonObject, GUIState.class);
+				break;
+			}
+			case TESLA_VEHICLE_STATE: {
+				vehicleState = gson.fromJson(jsonObject, VehicleState.class);
+				break;
+			}
+			case TESLA_CHARGE_STATE: {
+				chargeState = gson.fromJson(jsonObject, ChargeState.class);
+				if (chargeState.charging_state != null
+						&& chargeState.charging_state.equals("Charging")) {
+					publishState(channelStateCache.getChannelUID("charge"), OnOffType.ON);
+				} else {
+					publishState(channelStateCache.getChannelUID("charge"), OnOffType.OFF);
 				}
-				case TESLA_CHARGE_STATE: {
-					chargeState = gson.fromJson(result, ChargeState.class);
-					ChannelUID theChannelUID = new ChannelUID(getThing()
-							.getUID(), "charge");
-					if (chargeState.charging_state != null
-							&& chargeState.charging_state.equals("Charging")) {
-						updateState(theChannelUID, OnOffType.ON);
-					} else {
-						updateState(theChannelUID, OnOffType.OFF);
+				break;
+			}
+			case TESLA_CLIMATE_STATE: {
+				climateState = gson.fromJson(jsonObject, ClimateState.class);
+				break;
+			}
+			}
+
+			// deal with responses for "set" commands, which get confirmed
+			// positively, or negatively, in which case a reason for failure
+			// is provided
+			if (values.get("reason") != null) {
+				logger.debug("The request ({}) execution was {}, and reported '{}'",
+						new Object[] {
+								request,
+								Boolean.parseBoolean(values.get("result")) ? "successful"
+										: "not successful", values.get("reason") });
+				return;
+			}
+
+			// then publish the values that changed, and update the properties
+			// at once
+			Map<String, String> properties = editProperties();
+			boolean propertiesChanged = false;
+			for (Map.Entry<String, String> entry : values.entrySet()) {
+				try {
+					TeslaChannelSelector selector = TeslaChannelSelector
+							.getValueSelectorFromRESTID(entry.getKey());
+					if (!selector.isProperty()) {
+						State newState = entry.getValue() != null ? teslaChannelSelectorProxy
+								.getState(entry.getValue(), selector, properties)
+								: null;
+						publishState(channelStateCache.getChannelUID(selector.getChannelID()),
+								newState != null ? newState : UnDefType.UNDEF);
+					} else if (entry.getValue() != null
+							&& !entry.getValue().equals(
+									properties.get(selector.getChannelID()))) {
+						properties.put(selector.getChannelID(), entry.getValue());
+						propertiesChanged = true;
 					}
+				} catch (Exception e) {
+					logger.debug(
+							"Unable to handle the variable/value pair '{}':'{}'",
+							entry.getKey(), entry.getValue());
+				}
+			}
+			if (propertiesChanged) {
+				updateProperties(properties);
+			}
+		} catch (Exception p) {
+			logger.error(
+					"An exception occurred while parsing data received from the vehicle: '{}'",
+					p.getMessage());
+		}
 
+	}
+
+	/**
+	 * Reads a JSON object, adding its fields to the given tree, and the values
+	 * of its fields that are not nested objects or arrays to the given map.
+	 */
+	private void readResponse(String result, JsonObject jsonObject,
+			Map<String, String> values) throws IOException {
+		JsonReader reader = new JsonReader(new StringReader(result));
+		try {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				switch (reader.peek()) {
+				case NULL: {
+					reader.nextNull();
+					jsonObject.add(name, JsonNull.INSTANCE);
+					values.put(name, null);
 					break;
 				}
-				case TESLA_CLIMATE_STATE: {
-					climateState = gson.fromJson(result, ClimateState.class);
+				case BOOLEAN: {
+					boolean value = reader.nextBoolean();
+					jsonObject.addProperty(name, value);
+					values.put(name, String.valueOf(value));
 					break;
 				}
-				}
-
-				// secondly, reformat the response string to a JSON compliant
-				// object for some specific non-JSON compatible requests
-				switch (request) {
-				case TESLA_MOBILE_ENABLED_STATE: {
-					jsonObject = new JsonObject();
-					jsonObject.addProperty(TESLA_MOBILE_ENABLED_STATE, result);
+				case NUMBER:
+				case STRING: {
+					String value = reader.nextString();
+					jsonObject.addProperty(name, value);
+					values.put(name, value);
 					break;
 				}
 				default: {
-					jsonObject = parser.parse(result).getAsJsonObject();
+					// nested values are only used by the state objects
+					jsonObject.add(name, parser.parse(reader));
 					break;
 				}
 				}
 			}
-
-			// process the result
-			if (jsonObject != null && result != null && !result.equals("null")) {
-				// deal with responses for "set" commands, which get confirmed
-				// positively, or negatively, in which case a reason for failure
-				// is provided
-				if (jsonObject.get("reason") != null
-						&& jsonObject.get("reason").getAsString() != null) {
-					boolean requestResult = jsonObject.get("result")
-							.getAsBoolean();
-					logger.debug(
-							"The request ({}) execution was {}, and reported '{}'",
-							new Object[] {
-									request,
-									requestResult ? "successful"
-											: "not successful",
-									jsonObject.get("reason").getAsString() });
-				} else {
-					Set<Map.Entry<String, JsonElement>> entrySet = jsonObject
-							.entrySet();
-					for (Map.Entry<String, JsonElement> entry : entrySet) {
-						try {
-							TeslaChannelSelector selector = TeslaChannelSelector
-									.getValueSelectorFromRESTID(entry.getKey());
-							if (!selector.isProperty()) {
-								ChannelUID theChannelUID = new ChannelUID(
-										getThing().getUID(),
-										selector.getChannelID());
-								if (!entry.getValue().isJsonNull()) {
-									updateState(theChannelUID,
-											teslaChannelSelectorProxy.getState(
-													entry.getValue()
-															.getAsString(),
-													selector, editProperties()));
-								} else {
-									updateState(theChannelUID, UnDefType.UNDEF);
-								}
-							} else {
-								if (!entry.getValue().isJsonNull()) {
-									Map<String, String> properties = editProperties();
-									properties.put(selector.getChannelID(),
-											entry.getValue().getAsString());
-									updateProperties(properties);
-								}
-							}
-						} catch (Exception e) {
-							logger.debug(
-									"Unable to handle the variable/value pair '{}':'{}'",
-									entry.getKey(), entry.getValue());
-						}
-					}
-				}
-			}
-		} catch (Exception p) {
-			logger.error(
-					"An exception occurred while parsing data received from the vehicle: '{}'",
-					p.getMessage());
+			reader.endObject();
+		} finally {
+			reader.close();
 		}
+	}
 
+	/**
+	 * Updates the state of a channel, unless the channel already has that
+	 * state.
+	 */
+	protected void publishState(ChannelUID channelUID, State state) {
+		State previousState = publishedStates.put(channelUID, state);
+		if (!state.equals(previousState)) {
+			updateState(channelUID, state);
+		}
 	}
 
 	protected boolean isAwake() {
-		return (vehicle != null) ? (vehicle.state != "asleep" && vehicle.vehicle_id != null)
-				: false;
+		return (vehicle != null) ? TeslaPollingPolicy.isAwake(vehicle.state, vehicle.vehicle_id) : false;
 	}
 
 	protected boolean isInMotion() {
-		if (driveState != null) {
-			if (driveState.speed != null && driveState.shift_state != null) {
-				return !driveState.speed.equals("Undefined")
-						&& (!driveState.shift_state.equals("P") || !driveState.shift_state
-								.equals("Undefined"));
-			}
-		}
-		return false;
+		return (driveState != null) ? TeslaPollingPolicy.isInMotion(driveState.speed, driveState.shift_state)
+				: false;
 	}
 
 	public void setChargeLimit(int percent) {
@@ -665,234 +746,376 @@ public class TeslaHandler extends BaseThingHandler {
 
 	protected Vehicle queryVehicle() {
 
-		// get a list of vehicles
-		Response response = vehiclesTarget
-				.request(MediaType.APPLICATION_JSON_TYPE)
-				.header("Authorization", "Bearer " + accessToken).get();
-
-		JsonParser parser = new JsonParser();
-
-		JsonObject jsonObject = parser.parse(response.readEntity(String.class))
-				.getAsJsonObject();
-		Vehicle[] vehicleArray = gson.fromJson(
-				jsonObject.getAsJsonArray("response"), Vehicle[].class);
-
-		for (int i = 0; i < vehicleArray.length; i++) {
-			if (vehicleArray[i].vin.equals((String) getConfig().get(VIN))) {
-				vehicleJSON = gson.toJson(vehicleArray[i]);
-				parseAndUpdate("queryVehicle", null, vehicleJSON);
-				return vehicleArray[i];
+		// get a list of vehicles, from the account if there is one
+		TeslaAccountHandler account = getAccountHandler();
+		Vehicle[] vehicleArray = account != null ? account.getVehicles()
+				: teslaClient.queryVehicles();
+
+		if (vehicleArray != null) {
+			for (int i = 0; i < vehicleArray.length; i++) {
+				if (vehicleArray[i].vin.equals((String) getConfig().get(VIN))) {
+					vehicleJSON = gson.toJson(vehicleArray[i]);
+					parseAndUpdate("queryVehicle", null, vehicleJSON);
+					return vehicleArray[i];
+				}
 			}
 		}
 
 		return null;
 	}
 
-	protected ThingStatusDetail authenticate(String username, String password) {
+	private synchronized TeslaAccountHandler getAccountHandler() {
+		if (accountHandler == null) {
+			Bridge bridge = getBridge();
+			if (bridge == null) {
+				return null;
+			}
+			ThingHandler handler = bridge.getHandler();
+			if (handler instanceof TeslaAccountHandler) {
+				accountHandler = (TeslaAccountHandler) handler;
+			} else {
+				logger.debug("No available account handler found for bridge {}",
+						bridge.getUID());
+				return null;
+			}
+		}
+		return accountHandler;
+	}
 
-		TokenRequest token = new TokenRequest(username, password);
-		String payLoad = gson.toJson(token);
+	@Override
+	public void bridgeHandlerInitialized(ThingHandler thingHandler,
+			Bridge bridge) {
+		synchronized (this) {
+			accountHandler = null;
+		}
+		if (getThing().getStatus() != ThingStatus.ONLINE) {
+			initialize();
+		}
+	}
 
-		Response response = tokenTarget.request().post(
-				Entity.entity(payLoad, MediaType.APPLICATION_JSON_TYPE));
+	@Override
+	public void bridgeHandlerDisposed(ThingHandler thingHandler, Bridge bridge) {
+		synchronized (this) {
+			accountHandler = null;
+		}
+	}
 
-		if (response != null) {
-			if (response.getStatus() == 200 && response.hasEntity()) {
+	protected ThingStatusDetail authenticate(String username, String password) {
+		return teslaClient.authenticate(username, password);
+	}
 
-				String responsePayLoad = response.readEntity(String.class);
-				JsonObject readObject = parser.parse(responsePayLoad)
-						.getAsJsonObject();
+	protected Runnable pollingRunnable = new Runnable() {
 
-				for (Entry<String, JsonElement> entry : readObject.entrySet()) {
-					switch (entry.getKey()) {
-					case "access_token": {
-						accessToken = entry.getValue().getAsString();
-						return ThingStatusDetail.NONE;
+		@Override
+		public void run() {
+			try {
+				boolean awake = isAwake();
+				pollingPolicy.update(awake, awake && isInMotion(),
+						chargeState != null ? chargeState.charging_state : null);
+
+				for (String endpoint : pollingPolicy.getDueEndpoints()) {
+					switch (endpoint) {
+					case VEHICLES: {
+						vehicle = queryVehicle();
+						break;
+					}
+					case TESLA_MOBILE_ENABLED_STATE: {
+						queryVehicle(TESLA_MOBILE_ENABLED_STATE);
+						parseAndUpdate("queryVehicle", null, vehicleJSON);
+						break;
+					}
+					default: {
+						if (!pollData(endpoint)) {
+							// rather than queueing a poll, try again later
+							pollingPolicy.postpone(endpoint);
+						}
+						break;
 					}
 					}
 				}
-			} else if (response.getStatus() == 401) {
-				return ThingStatusDetail.CONFIGURATION_ERROR;
-			} else if (response.getStatus() == 503) {
-				return ThingStatusDetail.COMMUNICATION_ERROR;
+			} catch (Exception e) {
+				logger.error(
+						"An exception occurred while polling the vehicle: '{}'",
+						e.getMessage());
 			}
 		}
-		return ThingStatusDetail.CONFIGURATION_ERROR;
+	};
+
+	/**
+	 * @return the poll interval in ms of each endpoint, given what the vehicle
+	 *         is doing
+	 */
+	public Map<String, Long> getPollingSchedule() {
+		return pollingPolicy.getSchedule();
 	}
 
-	protected Runnable fastStateRunnable = new Runnable() {
+	/**
+	 * @return the number of polls of each endpoint
+	 */
+	public Map<String, Long> getPollingRequestCounts() {
+		return pollingPolicy.getRequestCounts();
+	}
 
-		@Override
-		public void run() {
+	/**
+	 * Reads the event stream of the vehicle on a thread of its own, processing
+	 * each event as soon as its line is complete. The stream is re-established
+	 * when it ends, or when it has been idle for MINIMUM_EVENT_INTERVAL.
+	 */
+	protected class EventReader extends Thread {
 
-			if (isAwake()) {
-				requestData(TESLA_DRIVE_STATE);
-				requestData(TESLA_VEHICLE_STATE);
-			} else {
-				if (vehicle != null) {
-					sendCommand(TESLA_COMMAND_WAKE_UP);
-				} else {
-					vehicle = queryVehicle();
-				}
-			}
-		}
-	};
+		/** Set when the reader is asked to stop */
+		protected volatile boolean stopped = false;
 
-	protected Runnable slowStateRunnable = new Runnable() {
+		private volatile Response eventResponse;
+		private volatile BufferedReader eventBufferedReader;
 
-		@Override
-		public void run() {
+		protected EventReader() {
+			super("Tesla event reader " + getConfig().get(VIN));
+			setDaemon(true);
+		}
 
-			if (isAwake()) {
-				requestData(TESLA_CHARGE_STATE);
-				requestData(TESLA_CLIMATE_STATE);
-				requestData(TESLA_GUI_STATE);
-				queryVehicle(TESLA_MOBILE_ENABLED_STATE);
-				parseAndUpdate("queryVehicle", null, vehicleJSON);
-			} else {
-				if (vehicle != null) {
-					sendCommand(TESLA_COMMAND_WAKE_UP);
-				} else {
-					vehicle = queryVehicle();
-				}
-			}
+		/**
+		 * Stops the reader, closing the event stream to unblock a pending read.
+		 */
+		protected void shutdown() {
+			stopped = true;
+			interrupt();
+			closeEventStream();
 		}
-	};
 
-	protected Runnable eventRunnable = new Runnable() {
+		protected boolean isStreaming() {
+			return eventBufferedReader != null;
+		}
 
 		protected boolean establishEventStream() throws Exception {
-			eventClient = ClientBuilder.newClient().register(
-					new Authenticator((String) getConfig().get(USERNAME),
-							vehicle.tokens[0]));
-			eventTarget = eventClient
-					.target(TESLA_EVENT_URI)
+			Response response = teslaClient
+					.getEventTarget()
 					.path(vehicle.vehicle_id + "/")
-					.queryParam(
-							"values",
-							StringUtils.join(EventKeys.values(), ',', 1,
-									EventKeys.values().length));
-			eventResponse = eventTarget.request(MediaType.TEXT_PLAIN_TYPE)
-					.get();
-			if (eventResponse.getStatus() == 200) {
-				InputStream dummy = (InputStream) eventResponse.getEntity();
-				// eventInputStreamReader = new
-				// InputStreamReader(eventResponse.readEntity(InputStream.class));
-				eventInputStreamReader = new InputStreamReader(dummy);
-				eventBufferedReader = new BufferedReader(eventInputStreamReader);
+					.queryParam("values", EVENT_VALUES)
+					.request(MediaType.TEXT_PLAIN_TYPE)
+					.header("Authorization",
+							getBasicAuthentication(username,
+									vehicle.tokens[0])).get();
+			eventResponse = response;
+			if (stopped) {
+				// shutdown() may have missed the new stream
+				closeEventStream();
+				return false;
+			}
+			if (response.getStatus() == 200) {
+				InputStream dummy = (InputStream) response.getEntity();
+				eventBufferedReader = new BufferedReader(new InputStreamReader(
+						dummy));
+				eventStreamStartTime = System.currentTimeMillis();
+				eventStreamEvents = 0;
 				return true;
 			} else {
+				closeEventStream();
 				return false;
 			}
 		}
 
+		protected void closeEventStream() {
+			eventBufferedReader = null;
+			Response response = eventResponse;
+			eventResponse = null;
+			if (response != null) {
+				try {
+					response.close();
+				} catch (Exception e) {
+					// the stream is gone already
+				}
+			}
+		}
+
 		@Override
 		public void run() {
 			try {
-				if (isAwake()) {
-					if (eventBufferedReader == null
-							|| (!isInMotion() && (System.currentTimeMillis()
-									- lastEventSystemTime > MINIMUM_EVENT_INTERVAL))) {
+				readEvents();
+			} finally {
+				closeEventStream();
+				synchronized (eventReaderLock) {
+					if (eventReader == this) {
+						eventReader = null;
+					}
+				}
+			}
+		}
+
+		private void readEvents() {
+			while (!stopped) {
+				try {
+					if (!isAwake()) {
+						// the vehicle is left to sleep, the polling job
+						// notices when it wakes up
+						Thread.sleep(EVENT_REFRESH_INTERVAL);
+						continue;
+					}
+
+					BufferedReader reader = eventBufferedReader;
+					if (reader == null) {
+						boolean established = false;
 						try {
-							if (!establishEventStream()) {
-								vehicle = queryVehicle();
-								eventBufferedReader = null;
-							}
+							established = establishEventStream();
 						} catch (Exception e) {
 							logger.error(
 									"An exception occurred while establishing the event stream for the vehicle: '{}'",
 									e.getMessage());
+						}
+						if (!established) {
+							closeEventStream();
+							if (stopped) {
+								break;
+							}
 							vehicle = queryVehicle();
-							eventBufferedReader = null;
+							Thread.sleep(EVENT_RETRY_INTERVAL);
+							continue;
+						}
+						reader = eventBufferedReader;
+						if (reader == null) {
+							// closed by shutdown() in the meantime
+							continue;
 						}
 					}
 
+					String line = null;
 					try {
-						if (eventBufferedReader != null) {
-							String line = null;
-							try {
-								line = eventBufferedReader.readLine();
-							} catch (Exception e) {
-								// we just move on. If we are here, then is most
-								// probably due to Premature EOF exceptions
-							}
-							if (line != null) {
-								lastEventSystemTime = System
-										.currentTimeMillis();
-								logger.debug("Received an event: '{}'", line);
-								String vals[] = line.split(",");
-								if (!vals[0].equals(lastEventTimeStamp)) {
-									lastEventTimeStamp = vals[0];
-									for (int i = 0; i < EventKeys.values().length; i++) {
-										try {
-											TeslaChannelSelector selector = TeslaChannelSelector
-													.getValueSelectorFromRESTID((EventKeys
-															.values()[i])
-															.toString());
-											if (!selector.isProperty()) {
-												State newState = teslaChannelSelectorProxy
-														.getState(
-																vals[i],
-																selector,
-																editProperties());
-												if (newState != null
-														&& !vals[i].equals("")) {
-													updateState(
-															new ChannelUID(
-																	getThing()
-																			.getUID(),
-																	selector.getChannelID()),
-															newState);
-												} else {
-													updateState(
-															new ChannelUID(
-																	getThing()
-																			.getUID(),
-																	selector.getChannelID()),
-															UnDefType.UNDEF);
-
-												}
-											} else {
-												Map<String, String> properties = editProperties();
-												properties
-														.put(selector
-																.getChannelID(),
-																(selector
-																		.getState(vals[i]))
-																		.toString());
-												updateProperties(properties);
-											}
-										} catch (Exception e) {
-											logger.warn(
-													"An exception occurred while processing an event received from the vehicle; '{}'",
-													e.getMessage());
-										}
-									}
-								}
-							} else {
-								eventBufferedReader = null;
-							}
+						line = reader.readLine();
+					} catch (IOException e) {
+						// we just move on. If we are here, then it is most
+						// probably due to an idle stream or a Premature EOF
+					}
+
+					if (stopped) {
+						break;
+					}
+					if (line != null) {
+						processEvent(line);
+					} else {
+						boolean empty = eventStreamEvents == 0;
+						closeEventStream();
+						if (empty) {
+							// do not hammer a stream that has nothing to say
+							Thread.sleep(EVENT_RETRY_INTERVAL);
 						}
-					} catch (Exception e) {
-						logger.error(
-								"An exception occurred while reading event inputs from vehicle '{}' : {}",
-								vehicle.vin, e.getMessage());
-						eventBufferedReader = null;
 					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				} catch (Exception t) {
+					logger.error("An exception ocurred in the event thread: '{}'",
+							t.getMessage());
+					closeEventStream();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Processes a line of the event stream, a comma separated list of the
+	 * values of the EventKeys, starting with the timestamp of the event.
+	 */
+	protected void processEvent(String line) {
+		long now = System.currentTimeMillis();
+		lastEventSystemTime = now;
+		logger.debug("Received an event: '{}'", line);
+
+		int end = line.indexOf(',');
+		if (end < 0) {
+			return;
+		}
+		if (end == lastEventTimeStamp.length()
+				&& line.startsWith(lastEventTimeStamp)) {
+			return;
+		}
+		lastEventTimeStamp = line.substring(0, end);
+
+		try {
+			long lag = now - Long.parseLong(lastEventTimeStamp);
+			lastEventLag = lag;
+			totalEventLag.addAndGet(lag);
+		} catch (NumberFormatException e) {
+			logger.debug("Unable to parse the event timestamp '{}'",
+					lastEventTimeStamp);
+		}
+		receivedEvents.incrementAndGet();
+		eventStreamEvents++;
+
+		Map<String, String> properties = editProperties();
+		boolean propertiesChanged = false;
+		int start = 0;
+		for (int i = 0; i < EVENT_SELECTORS.length && start <= line.length(); i++) {
+			end = line.indexOf(',', start);
+			if (end < 0) {
+				end = line.length();
+			}
+			String value = line.substring(start, end);
+			start = end + 1;
+
+			TeslaChannelSelector selector = EVENT_SELECTORS[i];
+			if (selector == null) {
+				continue;
+			}
+			try {
+				if (!selector.isProperty()) {
+					State newState = value.isEmpty() ? null
+							: teslaChannelSelectorProxy.getState(value,
+									selector, properties);
+					publishState(channelStateCache.getChannelUID(selector.getChannelID()),
+							newState != null ? newState : UnDefType.UNDEF);
 				} else {
-					if (vehicle != null) {
-						// wake up the vehicle until streaming token <> 0
-						sendCommand(TESLA_COMMAND_WAKE_UP);
-					} else {
-						vehicle = queryVehicle();
+					String newValue = selector.getState(value).toString();
+					if (!newValue.equals(properties.get(selector
+							.getChannelID()))) {
+						properties.put(selector.getChannelID(), newValue);
+						propertiesChanged = true;
 					}
 				}
-			} catch (Exception t) {
-				logger.error("An exception ocurred in the event thread: '{}'",
-						t.getMessage());
+			} catch (Exception e) {
+				logger.warn(
+						"An exception occurred while processing an event received from the vehicle; '{}'",
+						e.getMessage());
 			}
 		}
-	};
+		if (propertiesChanged) {
+			updateProperties(properties);
+		}
+	}
+
+	/**
+	 * @return the number of events received from the event stream
+	 */
+	public long getReceivedEvents() {
+		return receivedEvents.get();
+	}
+
+	/**
+	 * @return the time in ms between the last event being recorded by the
+	 *         vehicle and it being received
+	 */
+	public long getLastEventLag() {
+		return lastEventLag;
+	}
+
+	/**
+	 * @return the average time in ms between an event being recorded by the
+	 *         vehicle and it being received
+	 */
+	public long getAverageEventLag() {
+		long events = receivedEvents.get();
+		return events == 0 ? 0 : totalEventLag.get() / events;
+	}
+
+	/**
+	 * @return the number of events per minute received on the current event
+	 *         stream
+	 */
+	public double getEventThroughput() {
+		EventReader reader = eventReader;
+		long elapsed = System.currentTimeMillis() - eventStreamStartTime;
+		return reader == null || !reader.isStreaming() || elapsed <= 0 ? 0
+				: eventStreamEvents * 60000.0 / elapsed;
+	}
 
 	protected class Request implements Runnable {
 
@@ -926,33 +1149,14 @@ public class TeslaHandler extends BaseThingHandler {
 		}
 	}
 
-	protected class Authenticator implements ClientRequestFilter {
-
-		private final String user;
-		private final String password;
-
-		public Authenticator(String user, String password) {
-			this.user = user;
-			this.password = password;
-		}
-
-		public void filter(ClientRequestContext requestContext)
-				throws IOException {
-			MultivaluedMap<String, Object> headers = requestContext
-					.getHeaders();
-			final String basicAuthentication = getBasicAuthentication();
-			headers.add("Authorization", basicAuthentication);
-		}
-
-		private String getBasicAuthentication() {
-			String token = this.user + ":" + this.password;
-			try {
-				return "Basic "
-						+ DatatypeConverter.printBase64Binary(token
-								.getBytes("UTF-8"));
-			} catch (UnsupportedEncodingException ex) {
-				throw new IllegalStateException("Cannot encode with UTF-8", ex);
-			}
+	protected static String getBasicAuthentication(String user, String password) {
+		String token = user + ":" + password;
+		try {
+			return "Basic "
+					+ DatatypeConverter.printBase64Binary(token
+							.getBytes("UTF-8"));
+		} catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException("Cannot encode with UTF-8", ex);
 		}
 	}
 }
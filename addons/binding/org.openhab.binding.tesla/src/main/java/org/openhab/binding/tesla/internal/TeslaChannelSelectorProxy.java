@@ -8,10 +8,9 @@
  */
 package org.openhab.binding.tesla.internal;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
@@ -1002,9 +1001,25 @@ public class TeslaChannelSelectorProxy {
 		},
 		WHEEL_TYPE("wheel_type", "wheeltype", StringType.class, true);
 
+		private static final Map<String, TeslaChannelSelector> selectorsByRESTID = new HashMap<String, TeslaChannelSelector>();
+		private static final Map<String, TeslaChannelSelector> selectorsByChannelID = new HashMap<String, TeslaChannelSelector>();
+
+		static {
+			// the first selector wins, as it did when the values were scanned
+			for (TeslaChannelSelector c : TeslaChannelSelector.values()) {
+				if (c.RESTID != null && !selectorsByRESTID.containsKey(c.RESTID)) {
+					selectorsByRESTID.put(c.RESTID, c);
+				}
+				if (!selectorsByChannelID.containsKey(c.channelID)) {
+					selectorsByChannelID.put(c.channelID, c);
+				}
+			}
+		}
+
 		private final String RESTID;
 		private final String channelID;
 		private Class<? extends Type> typeClass;
+		private final StateConverter converter;
 		private final boolean isProperty;
 
 		private TeslaChannelSelector(String RESTID, String channelID,
@@ -1012,6 +1027,7 @@ public class TeslaChannelSelectorProxy {
 			this.RESTID = RESTID;
 			this.channelID = channelID;
 			this.typeClass = typeClass;
+			this.converter = StateConverter.forType(typeClass);
 			this.isProperty = isProperty;
 		}
 
@@ -1039,26 +1055,19 @@ public class TeslaChannelSelectorProxy {
 
 		public State getState(String s) {
 			try {
-				Method valueOf = typeClass.getMethod("valueOf", String.class);
-				State state = (State) valueOf.invoke(typeClass, s);
-				if (state != null)
-					return state;
-			} catch (NoSuchMethodException e) {
-			} catch (IllegalArgumentException e) {
-			} catch (IllegalAccessException e) {
-			} catch (InvocationTargetException e) {
+				return converter.convert(s);
+			} catch (RuntimeException e) {
+				return null;
 			}
-
-			return null;
 		}
 
 		public static TeslaChannelSelector getValueSelectorFromChannelID(
 				String valueSelectorText) throws IllegalArgumentException {
 
-			for (TeslaChannelSelector c : TeslaChannelSelector.values()) {
-				if (c.channelID.equals(valueSelectorText)) {
-					return c;
-				}
+			TeslaChannelSelector c = selectorsByChannelID
+					.get(valueSelectorText);
+			if (c != null) {
+				return c;
 			}
 
 			throw new IllegalArgumentException("Not valid value selector");
@@ -1067,16 +1076,80 @@ public class TeslaChannelSelectorProxy {
 		public static TeslaChannelSelector getValueSelectorFromRESTID(
 				String valueSelectorText) throws IllegalArgumentException {
 
-			for (TeslaChannelSelector c : TeslaChannelSelector.values()) {
-				if (c.RESTID != null && c.RESTID.equals(valueSelectorText)) {
-					return c;
-				}
+			TeslaChannelSelector c = valueSelectorText != null ? selectorsByRESTID
+					.get(valueSelectorText) : null;
+			if (c != null) {
+				return c;
 			}
 
 			throw new IllegalArgumentException("Not valid value selector");
 		}
 	}
 
+	/**
+	 * Converts a value received from the vehicle to the state of a channel,
+	 * as the valueOf method of its type would, without reflection.
+	 */
+	private enum StateConverter {
+
+		DECIMAL {
+			@Override
+			State convert(String s) {
+				return new DecimalType(s);
+			}
+		},
+		PERCENT {
+			@Override
+			State convert(String s) {
+				return ChannelStateCache.getPercentType(s);
+			}
+		},
+		ON_OFF {
+			@Override
+			State convert(String s) {
+				return OnOffType.valueOf(s);
+			}
+		},
+		OPEN_CLOSED {
+			@Override
+			State convert(String s) {
+				return OpenClosedType.valueOf(s);
+			}
+		},
+		STRING {
+			@Override
+			State convert(String s) {
+				return new StringType(s);
+			}
+		},
+		DATE_TIME {
+			@Override
+			State convert(String s) {
+				return new DateTimeType(s);
+			}
+		};
+
+		abstract State convert(String s);
+
+		static StateConverter forType(Class<? extends Type> typeClass) {
+			if (typeClass == DecimalType.class) {
+				return DECIMAL;
+			} else if (typeClass == PercentType.class) {
+				return PERCENT;
+			} else if (typeClass == OnOffType.class) {
+				return ON_OFF;
+			} else if (typeClass == OpenClosedType.class) {
+				return OPEN_CLOSED;
+			} else if (typeClass == StringType.class) {
+				return STRING;
+			} else if (typeClass == DateTimeType.class) {
+				return DATE_TIME;
+			}
+			throw new IllegalArgumentException("No state converter for "
+					+ typeClass.getSimpleName());
+		}
+	}
+
 	public String latitude = "0";
 	public String longitude = "0";
 	public String elevation = "0";
@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+import static org.openhab.binding.tesla.TeslaBindingConstants.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.openhab.binding.tesla.handler.TeslaHandler;
+import org.openhab.binding.tesla.internal.protocol.TokenRequest;
+import org.openhab.binding.tesla.internal.protocol.Vehicle;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * The {@link TeslaClient} holds the REST clients of a Tesla account, shared by
+ * the handlers of all vehicles of the account, so that they share the
+ * persistent connections to the Tesla servers. A filter adds the access token
+ * of the account to every request.
+ *
+ * Connections are only kept alive, and reused, once the entity of their
+ * response has been read or the response closed.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaClient {
+
+	/** The client property setting the read timeout, in ms */
+	private static final String READ_TIMEOUT_PROPERTY = "jersey.config.client.readTimeout";
+
+	private static final Map<String, TeslaClient> clients = new HashMap<String, TeslaClient>();
+
+	private final String username;
+	private int users = 0;
+
+	private final Client client;
+	private final Client eventClient;
+	private final WebTarget tokenTarget;
+	private final WebTarget vehiclesTarget;
+	private final WebTarget vehicleTarget;
+	private final WebTarget eventTarget;
+
+	private volatile String accessToken;
+
+	private final Gson gson = new Gson();
+	private final JsonParser parser = new JsonParser();
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong errorResponses = new AtomicLong();
+
+	private TeslaClient(String username) {
+		this.username = username;
+
+		client = ClientBuilder.newClient().register(new TokenFilter());
+		WebTarget teslaTarget = client.target(TESLA_OWNERS_URI);
+		tokenTarget = teslaTarget.path(TESLA_ACCESS_TOKEN_URI);
+		vehiclesTarget = teslaTarget.path(API_VERSION).path(VEHICLES);
+		vehicleTarget = vehiclesTarget.path(VEHICLE_ID_PATH);
+
+		// the event stream is re-established when it has been idle
+		eventClient = ClientBuilder.newClient().property(
+				READ_TIMEOUT_PROPERTY, TeslaHandler.MINIMUM_EVENT_INTERVAL);
+		eventTarget = eventClient.target(TESLA_EVENT_URI);
+	}
+
+	/**
+	 * Returns the client of an account, creating it for its first user.
+	 *
+	 * @param username
+	 *            the username of the account
+	 * @return the client
+	 */
+	public static TeslaClient acquire(String username) {
+		synchronized (clients) {
+			TeslaClient client = clients.get(username);
+			if (client == null) {
+				client = new TeslaClient(username);
+				clients.put(username, client);
+			}
+			client.users++;
+			return client;
+		}
+	}
+
+	/**
+	 * Releases the client, closing it when its last user releases it.
+	 */
+	public void release() {
+		synchronized (clients) {
+			if (--users > 0) {
+				return;
+			}
+			clients.remove(username);
+		}
+		client.close();
+		eventClient.close();
+	}
+
+	/**
+	 * Requests an access token for the account, which is added to all
+	 * further requests.
+	 *
+	 * @return NONE if the account was authenticated, or the reason why not
+	 */
+	public ThingStatusDetail authenticate(String username, String password) {
+
+		TokenRequest token = new TokenRequest(username, password);
+		String payLoad = gson.toJson(token);
+
+		Response response = tokenTarget.request().post(
+				Entity.entity(payLoad, MediaType.APPLICATION_JSON_TYPE));
+
+		if (response != null) {
+			if (response.getStatus() == 200 && response.hasEntity()) {
+
+				String responsePayLoad = response.readEntity(String.class);
+				JsonObject readObject = parser.parse(responsePayLoad)
+						.getAsJsonObject();
+
+				for (Entry<String, JsonElement> entry : readObject.entrySet()) {
+					switch (entry.getKey()) {
+					case "access_token": {
+						accessToken = entry.getValue().getAsString();
+						return ThingStatusDetail.NONE;
+					}
+					}
+				}
+			} else {
+				// release the connection
+				response.close();
+				if (response.getStatus() == 401) {
+					return ThingStatusDetail.CONFIGURATION_ERROR;
+				} else if (response.getStatus() == 503) {
+					return ThingStatusDetail.COMMUNICATION_ERROR;
+				}
+			}
+		}
+		return ThingStatusDetail.CONFIGURATION_ERROR;
+	}
+
+	/**
+	 * Requests the list of vehicles of the account.
+	 *
+	 * @return the vehicles, or <code>null</code> if the list could not be
+	 *         retrieved
+	 */
+	public Vehicle[] queryVehicles() {
+
+		Response response = vehiclesTarget.request(
+				MediaType.APPLICATION_JSON_TYPE).get();
+
+		if (response == null) {
+			return null;
+		}
+		if (response.getStatus() != 200 || !response.hasEntity()) {
+			// release the connection
+			response.close();
+			return null;
+		}
+
+		JsonObject jsonObject = parser.parse(response.readEntity(String.class))
+				.getAsJsonObject();
+		return gson.fromJson(jsonObject.getAsJsonArray("response"),
+				Vehicle[].class);
+	}
+
+	public void setAccessToken(String accessToken) {
+		this.accessToken = accessToken;
+	}
+
+	public String getAccessToken() {
+		return accessToken;
+	}
+
+	public WebTarget getTokenTarget() {
+		return tokenTarget;
+	}
+
+	public WebTarget getVehiclesTarget() {
+		return vehiclesTarget;
+	}
+
+	/**
+	 * @return the target of a vehicle, with a {vid} template for its id
+	 */
+	public WebTarget getVehicleTarget() {
+		return vehicleTarget;
+	}
+
+	public WebTarget getEventTarget() {
+		return eventTarget;
+	}
+
+	/**
+	 * @return the number of handlers sharing the client
+	 */
+	public int getUsers() {
+		synchronized (clients) {
+			return users;
+		}
+	}
+
+	/**
+	 * @return the number of requests made through the client
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 * @return the number of responses with a status other than 200
+	 */
+	public long getErrorResponses() {
+		return errorResponses.get();
+	}
+
+	private class TokenFilter implements ClientRequestFilter,
+			ClientResponseFilter {
+
+		@Override
+		public void filter(ClientRequestContext requestContext)
+				throws IOException {
+			requests.incrementAndGet();
+			String token = accessToken;
+			if (token != null
+					&& !requestContext.getUri().getPath()
+							.endsWith(TESLA_ACCESS_TOKEN_URI)) {
+				requestContext.getHeaders().putSingle("Authorization",
+						"Bearer " + token);
+			}
+		}
+
+		@Override
+		public void filter(ClientRequestContext requestContext,
+				ClientResponseContext responseContext) throws IOException {
+			if (responseContext.getStatus() != 200) {
+				errorResponses.incrementAndGet();
+			}
+		}
+	}
+}
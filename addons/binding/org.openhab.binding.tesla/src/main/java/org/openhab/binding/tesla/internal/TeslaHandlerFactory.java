@@ -10,14 +10,17 @@ package org.openhab.binding.tesla.internal;
 
 import static org.openhab.binding.tesla.TeslaBindingConstants.*;
 
-import java.util.Collections;
 import java.util.Set;
+import org.openhab.binding.tesla.handler.TeslaAccountHandler;
 import org.openhab.binding.tesla.handler.TeslaHandler;
+import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 
+import com.google.common.collect.ImmutableSet;
+
 /**
  * The {@link TeslaHandlerFactory} is responsible for creating things and thing
  * handlers.
@@ -26,8 +29,8 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandler;
  */
 public class TeslaHandlerFactory extends BaseThingHandlerFactory {
 
-	private final static Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections
-			.singleton(THING_TYPE_MODELS);
+	private final static Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = ImmutableSet
+			.of(THING_TYPE_MODELS, THING_TYPE_ACCOUNT);
 
 	@Override
 	public boolean supportsThingType(ThingTypeUID thingTypeUID) {
@@ -43,6 +46,10 @@ public class TeslaHandlerFactory extends BaseThingHandlerFactory {
 			return new TeslaHandler(thing);
 		}
 
+		if (thingTypeUID.equals(THING_TYPE_ACCOUNT)) {
+			return new TeslaAccountHandler((Bridge) thing);
+		}
+
 		return null;
 	}
 }
@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+import static org.openhab.binding.tesla.TeslaBindingConstants.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.binding.tesla.internal.throttler.TimeProvider;
+
+/**
+ * The {@link TeslaPollingPolicy} decides how often the state of a vehicle is
+ * requested, based on what the vehicle is doing. The drive state is polled
+ * often while driving, the charge state while charging, and a sleeping
+ * vehicle is left alone, apart from the list of vehicles, which tells when
+ * it wakes up without waking it.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaPollingPolicy {
+
+	public enum Mode {
+		ASLEEP, PARKED, CHARGING, DRIVING
+	}
+
+	public static final long NEVER = Long.MAX_VALUE;
+
+	/** The endpoints, with their poll intervals in seconds for each mode */
+	private static final Map<String, long[]> INTERVALS = new LinkedHashMap<String, long[]>();
+
+	static {
+		// ASLEEP, PARKED, CHARGING, DRIVING
+		INTERVALS.put(VEHICLES, new long[] { 60, 300, 300, 300 });
+		INTERVALS.put(TESLA_DRIVE_STATE, new long[] { NEVER, 300, 300, 10 });
+		INTERVALS.put(TESLA_VEHICLE_STATE, new long[] { NEVER, 300, 120, 60 });
+		INTERVALS.put(TESLA_CHARGE_STATE, new long[] { NEVER, 300, 15, 300 });
+		INTERVALS.put(TESLA_CLIMATE_STATE, new long[] { NEVER, 300, 120, 60 });
+		INTERVALS.put(TESLA_GUI_STATE, new long[] { NEVER, 3600, 3600, 3600 });
+		INTERVALS.put(TESLA_MOBILE_ENABLED_STATE, new long[] { NEVER, 3600,
+				3600, 3600 });
+	}
+
+	private final TimeProvider timeProvider;
+
+	private volatile Mode mode = Mode.ASLEEP;
+
+	private final Map<String, Long> lastPollTimes = new ConcurrentHashMap<String, Long>();
+	private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<String, AtomicLong>();
+
+	public TeslaPollingPolicy() {
+		this(TimeProvider.SYSTEM_PROVIDER);
+	}
+
+	public TeslaPollingPolicy(TimeProvider timeProvider) {
+		this.timeProvider = timeProvider;
+		for (String endpoint : INTERVALS.keySet()) {
+			requestCounts.put(endpoint, new AtomicLong());
+		}
+	}
+
+	/**
+	 * Derives the mode from what is known about the vehicle.
+	 *
+	 * @param awake
+	 *            whether the vehicle is awake
+	 * @param inMotion
+	 *            whether the vehicle is in motion
+	 * @param chargingState
+	 *            the last charging state reported, or <code>null</code>
+	 * @return the mode
+	 */
+	public Mode update(boolean awake, boolean inMotion, String chargingState) {
+		if (!awake) {
+			mode = Mode.ASLEEP;
+		} else if (inMotion) {
+			mode = Mode.DRIVING;
+		} else if ("Charging".equals(chargingState)) {
+			mode = Mode.CHARGING;
+		} else {
+			mode = Mode.PARKED;
+		}
+		return mode;
+	}
+
+	/**
+	 * @param state
+	 *            the state reported in the list of vehicles
+	 * @param vehicleId
+	 *            the id reported in the list of vehicles
+	 * @return whether the vehicle is awake
+	 */
+	public static boolean isAwake(String state, String vehicleId) {
+		return !"asleep".equals(state) && vehicleId != null;
+	}
+
+	/**
+	 * @param speed
+	 *            the speed reported in the drive state
+	 * @param shiftState
+	 *            the shift state reported in the drive state
+	 * @return whether the vehicle is in motion, i.e. has a speed and is not
+	 *         parked
+	 */
+	public static boolean isInMotion(String speed, String shiftState) {
+		if (speed != null && shiftState != null) {
+			return !speed.equals("Undefined") && !shiftState.equals("P") && !shiftState.equals("Undefined");
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the endpoints that are due to be polled in the current mode, and
+	 * counts them as requested.
+	 *
+	 * @return the endpoints
+	 */
+	public List<String> getDueEndpoints() {
+		long now = timeProvider.getCurrentTimeInMillis();
+		List<String> endpoints = new ArrayList<String>();
+		for (String endpoint : INTERVALS.keySet()) {
+			long interval = getInterval(endpoint);
+			if (interval == NEVER) {
+				continue;
+			}
+			Long lastPollTime = lastPollTimes.get(endpoint);
+			if (lastPollTime == null || now - lastPollTime >= interval) {
+				lastPollTimes.put(endpoint, now);
+				requestCounts.get(endpoint).incrementAndGet();
+				endpoints.add(endpoint);
+			}
+		}
+		return endpoints;
+	}
+
+	/**
+	 * Makes an endpoint due again, as it could not be polled.
+	 *
+	 * @param endpoint
+	 *            the endpoint
+	 */
+	public void postpone(String endpoint) {
+		if (lastPollTimes.remove(endpoint) != null) {
+			requestCounts.get(endpoint).decrementAndGet();
+		}
+	}
+
+	/**
+	 * Forgets when the endpoints were polled, so that all of them are due.
+	 */
+	public void reset() {
+		lastPollTimes.clear();
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @param endpoint
+	 *            the endpoint
+	 * @return the poll interval in ms of the endpoint in the current mode, or
+	 *         {@link #NEVER} if it is not polled
+	 */
+	public long getInterval(String endpoint) {
+		long[] intervals = INTERVALS.get(endpoint);
+		if (intervals == null || intervals[mode.ordinal()] == NEVER) {
+			return NEVER;
+		}
+		return intervals[mode.ordinal()] * 1000;
+	}
+
+	/**
+	 * @return the poll interval in ms of each endpoint in the current mode
+	 */
+	public Map<String, Long> getSchedule() {
+		Map<String, Long> schedule = new LinkedHashMap<String, Long>();
+		for (String endpoint : INTERVALS.keySet()) {
+			schedule.put(endpoint, getInterval(endpoint));
+		}
+		return Collections.unmodifiableMap(schedule);
+	}
+
+	/**
+	 * @return the number of requests made to each endpoint
+	 */
+	public Map<String, Long> getRequestCounts() {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (String endpoint : INTERVALS.keySet()) {
+			counts.put(endpoint, requestCounts.get(endpoint).get());
+		}
+		return Collections.unmodifiableMap(counts);
+	}
+
+}
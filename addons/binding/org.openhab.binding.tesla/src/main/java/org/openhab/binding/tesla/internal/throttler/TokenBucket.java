@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal.throttler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@link TokenBucket} defines a rate limiter that accepts a number of
+ * calls to be executed in a given time length, without locking. Instead of
+ * the history of calls it keeps the time at which the bucket is full again,
+ * which each call moves forward by the time length divided by the number of
+ * calls. A call is allowed while that time is less than a time length ahead.
+ *
+ * Buckets can be nested, for instance per endpoint within a vehicle within an
+ * account. A call then takes a token from the bucket and from all of its
+ * parents.
+ *
+ * @author agent - Initial contribution
+ */
+public final class TokenBucket {
+
+	private final TokenBucket parent;
+	private final long interval;
+	private final long burst;
+	private final AtomicLong fullTime = new AtomicLong();
+
+	public TokenBucket(int numberCalls, int timeLength, TimeUnit timeUnit) {
+		this(numberCalls, timeLength, timeUnit, null);
+	}
+
+	public TokenBucket(int numberCalls, int timeLength, TimeUnit timeUnit,
+			TokenBucket parent) {
+		long timeInMillis = timeUnit.toMillis(timeLength);
+		// round up, so that the rate is never exceeded, while the bucket
+		// still holds numberCalls tokens
+		this.interval = (timeInMillis + numberCalls - 1) / numberCalls;
+		this.burst = (numberCalls - 1) * interval;
+		this.parent = parent;
+	}
+
+	public TokenBucket getParent() {
+		return parent;
+	}
+
+	/**
+	 * Takes a token from this bucket and its parents, if all of them have one
+	 * left.
+	 *
+	 * @param now
+	 *            the current time in ms
+	 * @return true if the call may be executed now
+	 */
+	public boolean tryAcquire(long now) {
+		for (TokenBucket bucket = this; bucket != null; bucket = bucket.parent) {
+			if (!bucket.tryTake(now)) {
+				for (TokenBucket taken = this; taken != bucket; taken = taken.parent) {
+					taken.giveBack();
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reserves a token from this bucket and its parents, at the earliest time
+	 * all of them have one.
+	 *
+	 * @param now
+	 *            the current time in ms
+	 * @return the time in ms at which the call may be executed
+	 */
+	public long reserve(long now) {
+		long callTime = now;
+		while (true) {
+			for (TokenBucket bucket = this; bucket != null; bucket = bucket.parent) {
+				callTime = Math.max(callTime, bucket.fullTime.get() - bucket.burst);
+			}
+			// every level is charged at the same time, or none of them
+			TokenBucket bucket = this;
+			while (bucket != null && bucket.takeAt(callTime)) {
+				bucket = bucket.parent;
+			}
+			if (bucket == null) {
+				return callTime;
+			}
+			for (TokenBucket taken = this; taken != bucket; taken = taken.parent) {
+				taken.giveBack();
+			}
+		}
+	}
+
+	/**
+	 * @param now
+	 *            the current time in ms
+	 * @return the number of calls this bucket, not counting its parents,
+	 *         accepts now
+	 */
+	public long getAvailableTokens(long now) {
+		long used = Math.max(fullTime.get() - now, 0);
+		return Math.max((burst + interval - used) / interval, 0);
+	}
+
+	private boolean tryTake(long now) {
+		while (true) {
+			long full = fullTime.get();
+			long start = Math.max(full, now);
+			if (start - now > burst) {
+				return false;
+			}
+			if (fullTime.compareAndSet(full, start + interval)) {
+				return true;
+			}
+		}
+	}
+
+	private boolean takeAt(long callTime) {
+		while (true) {
+			long full = fullTime.get();
+			if (full - burst > callTime) {
+				// another call took the last token for that time
+				return false;
+			}
+			if (fullTime.compareAndSet(full, Math.max(full, callTime)
+					+ interval)) {
+				return true;
+			}
+		}
+	}
+
+	private void giveBack() {
+		fullTime.addAndGet(-interval);
+	}
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal.throttler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TokenBucketChannelThrottler} implements a throttler that takes
+ * the tokens for a call from a {@link TokenBucket} per channel, and its
+ * parents. Tasks are scheduled for the time their tokens are reserved for,
+ * which keeps their order per channel. Callers that would rather skip a call
+ * than wait can use {@link #trySubmit(Object, Runnable)} or
+ * {@link #tryAcquire(Object)}.
+ *
+ * @author agent - Initial contribution
+ */
+public final class TokenBucketChannelThrottler implements ChannelThrottler {
+
+	private Logger logger = LoggerFactory
+			.getLogger(TokenBucketChannelThrottler.class);
+
+	private final static int MAX_PENDING_TASKS = 150;
+
+	private final TokenBucket bucket;
+	private final ScheduledExecutorService scheduler;
+	private final Map<Object, TokenBucket> channels = new ConcurrentHashMap<Object, TokenBucket>();
+	private final TimeProvider timeProvider;
+	private final int maxPendingTasks;
+
+	private final AtomicInteger pendingTasks = new AtomicInteger();
+	private final AtomicLong submittedTasks = new AtomicLong();
+	private final AtomicLong rejectedTasks = new AtomicLong();
+	private final AtomicLong totalDelay = new AtomicLong();
+
+	public TokenBucketChannelThrottler(TokenBucket bucket,
+			ScheduledExecutorService scheduler,
+			Map<Object, TokenBucket> channels) {
+		this(bucket, scheduler, channels, TimeProvider.SYSTEM_PROVIDER,
+				MAX_PENDING_TASKS);
+	}
+
+	/**
+	 * @param bucket
+	 *            the bucket for tasks without a channel, or with a channel
+	 *            that has no bucket of its own
+	 * @param channels
+	 *            the buckets per channel, usually children of the given
+	 *            bucket
+	 */
+	public TokenBucketChannelThrottler(TokenBucket bucket,
+			ScheduledExecutorService scheduler,
+			Map<Object, TokenBucket> channels, TimeProvider timeProvider,
+			int maxPendingTasks) {
+		this.bucket = bucket;
+		this.scheduler = scheduler;
+		this.channels.putAll(channels);
+		this.timeProvider = timeProvider;
+		this.maxPendingTasks = maxPendingTasks;
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return submit(null, task);
+	}
+
+	@Override
+	public Future<?> submit(Object channelKey, Runnable task) {
+		if (pendingTasks.incrementAndGet() > maxPendingTasks) {
+			pendingTasks.decrementAndGet();
+			rejectedTasks.incrementAndGet();
+			logger.warn(
+					"The TokenBucketChannelThrottler can not take the task '{}' at this point in time",
+					task.toString());
+			return null;
+		}
+
+		FutureTask<Object> runTask = new FutureTask<Object>(task, null) {
+			@Override
+			protected void done() {
+				pendingTasks.decrementAndGet();
+			}
+		};
+
+		long now = timeProvider.getCurrentTimeInMillis();
+		long delay = getBucket(channelKey).reserve(now) - now;
+		submittedTasks.incrementAndGet();
+		totalDelay.addAndGet(delay);
+		scheduler.schedule(runTask, delay, TimeUnit.MILLISECONDS);
+		return runTask;
+	}
+
+	/**
+	 * Executes a task right away, if the tokens for it are available now.
+	 *
+	 * @return the future of the task, or <code>null</code> if it was not
+	 *         executed
+	 */
+	public Future<?> trySubmit(Object channelKey, Runnable task) {
+		if (!tryAcquire(channelKey)) {
+			return null;
+		}
+		FutureTask<Object> runTask = new FutureTask<Object>(task, null);
+		submittedTasks.incrementAndGet();
+		scheduler.execute(runTask);
+		return runTask;
+	}
+
+	/**
+	 * Takes the tokens for a call on the given channel, if they are available
+	 * now.
+	 *
+	 * @return true if the call may be executed now
+	 */
+	public boolean tryAcquire(Object channelKey) {
+		return getBucket(channelKey).tryAcquire(
+				timeProvider.getCurrentTimeInMillis());
+	}
+
+	/**
+	 * @return the number of tasks waiting to be executed
+	 */
+	public int getPendingTasks() {
+		return pendingTasks.get();
+	}
+
+	/**
+	 * @return the number of tasks scheduled
+	 */
+	public long getSubmittedTasks() {
+		return submittedTasks.get();
+	}
+
+	/**
+	 * @return the number of tasks rejected as too many were waiting
+	 */
+	public long getRejectedTasks() {
+		return rejectedTasks.get();
+	}
+
+	/**
+	 * @return the average time in ms tasks were delayed by
+	 */
+	public long getAverageDelay() {
+		long submitted = submittedTasks.get();
+		return submitted == 0 ? 0 : totalDelay.get() / submitted;
+	}
+
+	private TokenBucket getBucket(Object channelKey) {
+		TokenBucket channelBucket = channelKey != null ? channels
+				.get(channelKey) : null;
+		return channelBucket != null ? channelBucket : bucket;
+	}
+}